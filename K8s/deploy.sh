@@ -6,6 +6,11 @@ kubectl apply -f namespace.yaml
 # ConfigMap
 kubectl apply -f configmap.yaml
 
+# Quote signing secret shared by all order-service replicas; kept if it already exists so issued quotes stay valid
+kubectl get secret order-quote-secret -n stock-management >/dev/null 2>&1 || \
+    kubectl create secret generic order-quote-secret -n stock-management \
+        --from-literal=secret="$(openssl rand -hex 32)"
+
 # Databases
 kubectl apply -f postgres-deployments.yaml
 
@@ -0,0 +1,180 @@
+package com.stockmanagement.inventory_service.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Stock counters for flagged SKUs, one hash per (product, warehouse) holding quantity (q), reserved (r) and a
+// version (v) that every change bumps. All mutations run as Lua scripts so the availability check and the
+// increment are a single Redis command. Changed SKUs are added to a dirty set that HotStockWriteBehind drains.
+// Keys share the {hot} hash tag so multi-SKU scripts stay on one cluster slot.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HotStockCounters {
+    
+    private static final String KEY_PREFIX = "stock:{hot}:";
+    private static final String DIRTY_KEY = KEY_PREFIX + "dirty";
+    
+    // KEYS[1] dirty set, KEYS[2..] counters; ARGV[1..n] quantities, ARGV[n+1..2n] members.
+    // Returns 1 when every line was reserved, 0 when any line is short, -i when counter i is not loaded.
+    private static final RedisScript<Long> RESERVE = new DefaultRedisScript<>("""
+            local n = #KEYS - 1
+            for i = 1, n do
+                local c = redis.call('HMGET', KEYS[i + 1], 'q', 'r')
+                if not c[1] then return -i end
+                if tonumber(c[1]) - tonumber(c[2]) < tonumber(ARGV[i]) then return 0 end
+            end
+            for i = 1, n do
+                redis.call('HINCRBY', KEYS[i + 1], 'r', ARGV[i])
+                redis.call('HINCRBY', KEYS[i + 1], 'v', 1)
+                redis.call('SADD', KEYS[1], ARGV[n + i])
+            end
+            return 1
+            """, Long.class);
+    
+    // Same layout as RESERVE; reserved never drops below zero
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>("""
+            local n = #KEYS - 1
+            for i = 1, n do
+                if redis.call('EXISTS', KEYS[i + 1]) == 0 then return -i end
+            end
+            for i = 1, n do
+                local r = tonumber(redis.call('HGET', KEYS[i + 1], 'r')) - tonumber(ARGV[i])
+                redis.call('HSET', KEYS[i + 1], 'r', math.max(r, 0))
+                redis.call('HINCRBY', KEYS[i + 1], 'v', 1)
+                redis.call('SADD', KEYS[1], ARGV[n + i])
+            end
+            return 1
+            """, Long.class);
+    
+    // A counter that already exists is newer than the database, so it is kept and queued for flushing instead
+    private static final RedisScript<Long> LOAD = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[2]) == 1 then
+                redis.call('SADD', KEYS[1], ARGV[4])
+                return 0
+            end
+            redis.call('HSET', KEYS[2], 'q', ARGV[1], 'r', ARGV[2], 'v', ARGV[3])
+            return 1
+            """, Long.class);
+    
+    private static final RedisScript<Long> ADJUST_QUANTITY = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end
+            redis.call('HINCRBY', KEYS[1], 'q', ARGV[1])
+            return 1
+            """, Long.class);
+    
+    // Pops up to ARGV[1] dirty members and returns member, reserved, version triples
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> DRAIN = new DefaultRedisScript<>("""
+            local members = redis.call('SPOP', KEYS[1], ARGV[1])
+            local out = {}
+            for _, m in ipairs(members) do
+                local c = redis.call('HMGET', ARGV[2] .. m, 'r', 'v')
+                if c[1] then
+                    table.insert(out, m)
+                    table.insert(out, c[1])
+                    table.insert(out, c[2])
+                end
+            end
+            return out
+            """, List.class);
+    
+    private final StringRedisTemplate stringRedisTemplate;
+    
+    // Positive: all reserved. Zero: some line is short. Negative: -(index + 1) of the first line that must be loaded.
+    public long reserve(Long warehouseId, List<Long> productIds, List<Integer> quantities) {
+        return execute(RESERVE, warehouseId, productIds, quantities);
+    }
+    
+    public long release(Long warehouseId, List<Long> productIds, List<Integer> quantities) {
+        return execute(RELEASE, warehouseId, productIds, quantities);
+    }
+    
+    public boolean load(Long productId, Long warehouseId, int quantity, int reservedQuantity, long version) {
+        Long loaded = stringRedisTemplate.execute(LOAD, List.of(DIRTY_KEY, buildKey(productId, warehouseId)),
+                String.valueOf(quantity), String.valueOf(reservedQuantity), String.valueOf(version),
+                buildMember(productId, warehouseId));
+        return Long.valueOf(1).equals(loaded);
+    }
+    
+    public void adjustQuantity(Long productId, Long warehouseId, int delta) {
+        stringRedisTemplate.execute(ADJUST_QUANTITY, List.of(buildKey(productId, warehouseId)), String.valueOf(delta));
+    }
+    
+    // [quantity, reserved], or null when the counter is not loaded
+    public int[] get(Long productId, Long warehouseId) {
+        try {
+            List<Object> values = stringRedisTemplate.opsForHash()
+                    .multiGet(buildKey(productId, warehouseId), List.of("q", "r"));
+            if (values.get(0) == null) {
+                return null;
+            }
+            return new int[] {Integer.parseInt((String) values.get(0)), Integer.parseInt((String) values.get(1))};
+        } catch (Exception e) {
+            log.error("Error reading hot stock counter: product={}, warehouse={}", productId, warehouseId, e);
+            return null;
+        }
+    }
+    
+    public List<DirtyCounter> drainDirty(int limit) {
+        List<?> raw = stringRedisTemplate.execute(DRAIN, List.of(DIRTY_KEY), String.valueOf(limit), KEY_PREFIX);
+        List<DirtyCounter> counters = new ArrayList<>();
+        if (raw == null) {
+            return counters;
+        }
+        for (int i = 0; i + 2 < raw.size(); i += 3) {
+            String[] member = ((String) raw.get(i)).split(":");
+            counters.add(new DirtyCounter(Long.parseLong(member[0]), Long.parseLong(member[1]),
+                    Integer.parseInt((String) raw.get(i + 1)), Long.parseLong((String) raw.get(i + 2))));
+        }
+        return counters;
+    }
+    
+    public void markDirty(Collection<DirtyCounter> counters) {
+        try {
+            String[] members = counters.stream()
+                    .map(counter -> buildMember(counter.productId(), counter.warehouseId()))
+                    .toArray(String[]::new);
+            if (members.length > 0) {
+                stringRedisTemplate.opsForSet().add(DIRTY_KEY, members);
+            }
+        } catch (Exception e) {
+            log.error("Error re-queueing {} hot stock counters", counters.size(), e);
+        }
+    }
+    
+    private long execute(RedisScript<Long> script, Long warehouseId, List<Long> productIds, List<Integer> quantities) {
+        List<String> keys = new ArrayList<>(productIds.size() + 1);
+        List<String> args = new ArrayList<>(productIds.size() * 2);
+        keys.add(DIRTY_KEY);
+        for (Long productId : productIds) {
+            keys.add(buildKey(productId, warehouseId));
+        }
+        quantities.forEach(quantity -> args.add(String.valueOf(quantity)));
+        productIds.forEach(productId -> args.add(buildMember(productId, warehouseId)));
+        
+        Long result = stringRedisTemplate.execute(script, keys, args.toArray());
+        if (result == null) {
+            throw new IllegalStateException("Hot stock script returned no result");
+        }
+        return result;
+    }
+    
+    private String buildKey(Long productId, Long warehouseId) {
+        return KEY_PREFIX + buildMember(productId, warehouseId);
+    }
+    
+    private String buildMember(Long productId, Long warehouseId) {
+        return productId + ":" + warehouseId;
+    }
+    
+    public record DirtyCounter(Long productId, Long warehouseId, int reservedQuantity, long version) {
+    }
+}
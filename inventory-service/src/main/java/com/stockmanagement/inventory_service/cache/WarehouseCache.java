@@ -0,0 +1,104 @@
+package com.stockmanagement.inventory_service.cache;
+
+import com.stockmanagement.inventory_service.entity.Warehouse;
+import com.stockmanagement.inventory_service.repository.WarehouseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Every warehouse, preloaded into an immutable map that is swapped atomically, so reads never touch the database
+// or take a lock. The map is reloaded after any warehouse write through JPA (WarehouseChangeListener), on a
+// schedule for rows changed outside the service, and when a lookup misses. Cached entities are detached and shared
+// between threads; treat them as read-only.
+@Component
+@Slf4j
+public class WarehouseCache {
+    
+    private final WarehouseRepository warehouseRepository;
+    private final MeterRegistry meterRegistry;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(Map.of(), 0));
+    private final AtomicLong lastMissReload = new AtomicLong();
+    private final Counter reloadFailures;
+    
+    @Value("${inventory.warehouse-cache.miss-reload-interval-ms:1000}")
+    private long missReloadIntervalMs;
+    
+    public WarehouseCache(WarehouseRepository warehouseRepository, MeterRegistry meterRegistry) {
+        this.warehouseRepository = warehouseRepository;
+        this.meterRegistry = meterRegistry;
+        this.reloadFailures = Counter.builder("inventory.warehouse.cache.reload.failures")
+                .description("Warehouse cache reloads that failed and left the previous map in place")
+                .register(meterRegistry);
+        TimeGauge.builder("inventory.warehouse.cache.staleness", snapshot, TimeUnit.MILLISECONDS,
+                        current -> current.get().loadedAt() == 0 ? 0 : System.currentTimeMillis() - current.get().loadedAt())
+                .description("Time since the warehouse cache was last loaded")
+                .register(meterRegistry);
+        Gauge.builder("inventory.warehouse.cache.size", snapshot, current -> current.get().warehouses().size())
+                .description("Warehouses held by the cache")
+                .register(meterRegistry);
+    }
+    
+    @PostConstruct
+    public void preload() {
+        reload("startup");
+    }
+    
+    @Scheduled(fixedDelayString = "${inventory.warehouse-cache.reload-interval-ms:300000}",
+            initialDelayString = "${inventory.warehouse-cache.reload-interval-ms:300000}")
+    public void scheduledReload() {
+        reload("scheduled");
+    }
+    
+    public void refresh() {
+        reload("write");
+    }
+    
+    public Optional<Warehouse> find(Long id) {
+        Warehouse warehouse = snapshot.get().warehouses().get(id);
+        if (warehouse == null && reloadAfterMiss()) {
+            warehouse = snapshot.get().warehouses().get(id);
+        }
+        return Optional.ofNullable(warehouse);
+    }
+    
+    // Unknown ids would otherwise reload the whole table on every request
+    private boolean reloadAfterMiss() {
+        long now = System.currentTimeMillis();
+        long last = lastMissReload.get();
+        if (now - last < missReloadIntervalMs || !lastMissReload.compareAndSet(last, now)) {
+            return false;
+        }
+        return reload("miss");
+    }
+    
+    private synchronized boolean reload(String trigger) {
+        try {
+            Map<Long, Warehouse> warehouses = warehouseRepository.findAll().stream()
+                    .collect(Collectors.toUnmodifiableMap(Warehouse::getId, Function.identity()));
+            snapshot.set(new Snapshot(warehouses, System.currentTimeMillis()));
+            meterRegistry.counter("inventory.warehouse.cache.reloads", "trigger", trigger).increment();
+            log.debug("Warehouse cache reloaded ({}): {} warehouses", trigger, warehouses.size());
+            return true;
+        } catch (Exception e) {
+            reloadFailures.increment();
+            log.error("Error reloading warehouse cache ({})", trigger, e);
+            return false;
+        }
+    }
+    
+    private record Snapshot(Map<Long, Warehouse> warehouses, long loadedAt) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.stockmanagement.inventory_service.cache;
+
+import com.stockmanagement.inventory_service.entity.Warehouse;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// JPA entity listener; the cache is looked up lazily because listeners are created while the
+// EntityManagerFactory that WarehouseCache depends on is still being built
+@Component
+@RequiredArgsConstructor
+public class WarehouseChangeListener {
+    
+    private final ObjectProvider<WarehouseCache> warehouseCache;
+    
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Warehouse warehouse) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            warehouseCache.getObject().refresh();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                warehouseCache.getObject().refresh();
+            }
+        });
+    }
+}
@@ -3,13 +3,20 @@ package com.stockmanagement.inventory_service.client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
 import com.stockmanagement.inventory_service.dto.ProductDto;
 
+import java.util.List;
+
 @FeignClient(name = "product-service", fallback = ProductClientFallback.class)
 public interface ProductClient {
     
     @GetMapping("/products/{id}")
     ProductDto getProductById(@PathVariable Long id);
+    
+    @PostMapping("/products/batch")
+    List<ProductDto> getProductsByIds(@RequestBody List<Long> ids);
 }
 
@@ -5,6 +5,9 @@ import org.springframework.stereotype.Component;
 
 import com.stockmanagement.inventory_service.dto.ProductDto;
 
+import java.util.Collections;
+import java.util.List;
+
 @Component
 @Slf4j
 public class ProductClientFallback implements ProductClient {
@@ -17,4 +20,10 @@ public class ProductClientFallback implements ProductClient {
         fallbackProduct.setName("Product Unavailable");
         return fallbackProduct;
     }
+    
+    @Override
+    public List<ProductDto> getProductsByIds(List<Long> ids) {
+        log.error("Fallback: Unable to fetch products with ids: {}", ids);
+        return Collections.emptyList();
+    }
 }
\ No newline at end of file
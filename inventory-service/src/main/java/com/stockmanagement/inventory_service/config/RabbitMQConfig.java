@@ -16,9 +16,12 @@ public class RabbitMQConfig {
     
     public static final String INVENTORY_ORDER_CREATED_QUEUE = "inventory.order.created.queue";
     public static final String LOW_STOCK_QUEUE = "low.stock.queue";
+    public static final String INVENTORY_SAGA_COMMAND_QUEUE = "inventory.saga.command.queue";
     
     public static final String ORDER_CREATED_ROUTING_KEY = "order.created";
     public static final String LOW_STOCK_ROUTING_KEY = "inventory.low.stock";
+    public static final String SAGA_STOCK_COMMAND_ROUTING_KEY = "saga.stock.command";
+    public static final String SAGA_STOCK_REPLY_ROUTING_KEY = "saga.stock.reply";
     
     @Bean
     public TopicExchange orderExchange() {
@@ -56,6 +59,19 @@ public class RabbitMQConfig {
                 .with(LOW_STOCK_ROUTING_KEY);
     }
     
+    @Bean
+    public Queue inventorySagaCommandQueue() {
+        return new Queue(INVENTORY_SAGA_COMMAND_QUEUE, true);
+    }
+    
+    @Bean
+    public Binding inventorySagaCommandBinding() {
+        return BindingBuilder
+                .bind(inventorySagaCommandQueue())
+                .to(orderExchange())
+                .with(SAGA_STOCK_COMMAND_ROUTING_KEY);
+    }
+    
     @Bean
     public MessageConverter messageConverter() {
         return new Jackson2JsonMessageConverter();
@@ -6,10 +6,15 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
+import com.stockmanagement.inventory_service.service.GroupCommitReservationService;
+import com.stockmanagement.inventory_service.service.HotStockService;
 import com.stockmanagement.inventory_service.service.InventoryService;
+import com.stockmanagement.inventory_service.service.StockReservationService;
 import com.stockmanagement.inventory_service.dto.InventoryRequest;
+import com.stockmanagement.inventory_service.dto.StockHoldRequest;
 import com.stockmanagement.inventory_service.dto.InventoryResponse;
 import com.stockmanagement.inventory_service.dto.StockMovementRequest;
+import com.stockmanagement.inventory_service.dto.StockReservationRequest;
 
 @RestController
 @RequestMapping("/inventory")
@@ -17,6 +22,9 @@ import com.stockmanagement.inventory_service.dto.StockMovementRequest;
 public class InventoryController {
     
     private final InventoryService inventoryService;
+    private final StockReservationService stockReservationService;
+    private final GroupCommitReservationService groupCommitReservationService;
+    private final HotStockService hotStockService;
     
     @PostMapping
     public ResponseEntity<InventoryResponse> createInventory(@Valid @RequestBody InventoryRequest request) {
@@ -67,7 +75,10 @@ public class InventoryController {
             @RequestParam Long productId,
             @RequestParam Long warehouseId,
             @RequestParam Integer quantity) {
-        boolean reserved = inventoryService.reserveStock(productId, warehouseId, quantity);
+        // Hot SKUs are settled in Redis and never wait on the group commit queue
+        boolean reserved = groupCommitReservationService.isActive() && !hotStockService.isHot(productId)
+                ? groupCommitReservationService.reserve(productId, warehouseId, quantity)
+                : inventoryService.reserveStock(productId, warehouseId, quantity);
         return ResponseEntity.ok(reserved);
     }
     
@@ -79,4 +90,50 @@ public class InventoryController {
         inventoryService.releaseStock(productId, warehouseId, quantity);
         return ResponseEntity.ok().build();
     }
-}
\ No newline at end of file
+    
+    @PostMapping("/reserve/batch")
+    public ResponseEntity<Boolean> reserveStockBatch(@Valid @RequestBody StockReservationRequest request) {
+        // Single-SKU orders group-commit like single-line reservations; hot SKUs still settle in Redis
+        boolean reserved = groupCommitReservationService.accepts(request)
+                && !hotStockService.isHot(request.getItems().get(0).getProductId())
+                ? groupCommitReservationService.reserve(request)
+                : inventoryService.reserveStockBatch(request);
+        return ResponseEntity.ok(reserved);
+    }
+    
+    @PostMapping("/release/batch")
+    public ResponseEntity<Void> releaseStockBatch(@Valid @RequestBody StockReservationRequest request) {
+        inventoryService.releaseStockBatch(request);
+        return ResponseEntity.ok().build();
+    }
+    
+    @PostMapping("/reserve/bulk")
+    public ResponseEntity<List<Boolean>> reserveStockBulk(@Valid @RequestBody List<@Valid StockReservationRequest> requests) {
+        List<Boolean> results = inventoryService.reserveStockBulk(requests);
+        return ResponseEntity.ok(results);
+    }
+    
+    @PostMapping("/release/bulk")
+    public ResponseEntity<Void> releaseStockBulk(@Valid @RequestBody List<@Valid StockReservationRequest> requests) {
+        inventoryService.releaseStockBulk(requests);
+        return ResponseEntity.ok().build();
+    }
+    
+    @PostMapping("/holds")
+    public ResponseEntity<Boolean> placeHold(@Valid @RequestBody StockHoldRequest request) {
+        boolean held = stockReservationService.hold(request);
+        return ResponseEntity.ok(held);
+    }
+    
+    @PostMapping("/holds/{holdId}/confirm")
+    public ResponseEntity<Boolean> confirmHold(@PathVariable Long holdId) {
+        boolean confirmed = stockReservationService.confirm(holdId);
+        return ResponseEntity.ok(confirmed);
+    }
+    
+    @PostMapping("/holds/{holdId}/release")
+    public ResponseEntity<Void> releaseHold(@PathVariable Long holdId) {
+        stockReservationService.release(holdId);
+        return ResponseEntity.ok().build();
+    }
+}
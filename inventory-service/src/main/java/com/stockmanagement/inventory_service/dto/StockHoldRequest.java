@@ -0,0 +1,29 @@
+package com.stockmanagement.inventory_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHoldRequest {
+    
+    @NotNull(message = "Hold ID is required")
+    private Long holdId;
+    
+    @NotNull(message = "Warehouse ID is required")
+    private Long warehouseId;
+    
+    @NotEmpty(message = "Hold must have at least one item")
+    @Valid
+    private List<StockReservationItem> items;
+    
+    @Positive(message = "Hold duration must be positive")
+    private long holdSeconds;
+}
@@ -0,0 +1,22 @@
+package com.stockmanagement.inventory_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationRequest {
+    
+    @NotNull(message = "Warehouse ID is required")
+    private Long warehouseId;
+    
+    @NotEmpty(message = "Reservation must have at least one item")
+    @Valid
+    private List<StockReservationItem> items;
+}
@@ -44,6 +44,10 @@ public class Inventory {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Written only by HotStockWriteBehind, so a stale flush of a hot SKU counter can be ignored
+    @Column(name = "counter_version", insertable = false, updatable = false)
+    private Long counterVersion;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
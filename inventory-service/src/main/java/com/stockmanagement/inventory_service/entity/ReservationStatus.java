@@ -0,0 +1,9 @@
+package com.stockmanagement.inventory_service.entity;
+
+public enum ReservationStatus {
+    HELD,
+    CONFIRMED,
+    RELEASED,
+    EXPIRED,
+    REJECTED
+}
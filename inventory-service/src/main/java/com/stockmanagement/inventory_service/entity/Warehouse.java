@@ -1,5 +1,6 @@
 package com.stockmanagement.inventory_service.entity;
 
+import com.stockmanagement.inventory_service.cache.WarehouseChangeListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -8,6 +9,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "warehouses")
+@EntityListeners(WarehouseChangeListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
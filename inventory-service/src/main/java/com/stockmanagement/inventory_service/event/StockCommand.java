@@ -0,0 +1,19 @@
+package com.stockmanagement.inventory_service.event;
+
+import com.stockmanagement.inventory_service.dto.StockReservationItem;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockCommand implements Serializable {
+    private Long orderId;
+    private StockCommandType type;
+    private Long warehouseId;
+    private List<StockReservationItem> items;
+    private Long holdSeconds;
+}
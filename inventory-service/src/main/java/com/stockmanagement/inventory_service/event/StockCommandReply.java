@@ -0,0 +1,16 @@
+package com.stockmanagement.inventory_service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockCommandReply implements Serializable {
+    private Long orderId;
+    private StockCommandType type;
+    private boolean success;
+    private String message;
+}
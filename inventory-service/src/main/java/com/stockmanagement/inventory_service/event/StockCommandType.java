@@ -0,0 +1,7 @@
+package com.stockmanagement.inventory_service.event;
+
+public enum StockCommandType {
+    RESERVE,
+    CONFIRM,
+    RELEASE
+}
@@ -0,0 +1,53 @@
+package com.stockmanagement.inventory_service.listener;
+
+import com.stockmanagement.inventory_service.config.RabbitMQConfig;
+import com.stockmanagement.inventory_service.event.StockCommand;
+import com.stockmanagement.inventory_service.event.StockCommandReply;
+import com.stockmanagement.inventory_service.exception.InventoryNotFoundException;
+import com.stockmanagement.inventory_service.publisher.InventoryEventPublisher;
+import com.stockmanagement.inventory_service.service.StockReservationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockCommandListener {
+    
+    private final StockReservationService reservationService;
+    private final InventoryEventPublisher eventPublisher;
+    
+    // Replies go out after the reservation commits; other failures are rethrown so the command is redelivered
+    @RabbitListener(queues = RabbitMQConfig.INVENTORY_SAGA_COMMAND_QUEUE)
+    public void handleStockCommand(StockCommand command) {
+        log.info("Received {} stock command for order: {}", command.getType(), command.getOrderId());
+        
+        boolean success;
+        String message = null;
+        switch (command.getType()) {
+            case RESERVE -> {
+                try {
+                    success = reservationService.reserve(command);
+                    message = success ? null : "Insufficient stock";
+                } catch (InventoryNotFoundException e) {
+                    success = false;
+                    message = e.getMessage();
+                }
+            }
+            case CONFIRM -> {
+                success = reservationService.confirm(command.getOrderId());
+                message = success ? null : "Reservation expired or missing";
+            }
+            case RELEASE -> {
+                reservationService.release(command.getOrderId());
+                success = true;
+            }
+            default -> throw new IllegalArgumentException("Unknown stock command: " + command.getType());
+        }
+        
+        eventPublisher.publishStockCommandReply(
+                new StockCommandReply(command.getOrderId(), command.getType(), success, message));
+    }
+}
@@ -2,6 +2,7 @@ package com.stockmanagement.inventory_service.publisher;
 
 import com.stockmanagement.inventory_service.config.RabbitMQConfig;
 import com.stockmanagement.inventory_service.event.LowStockEvent;
+import com.stockmanagement.inventory_service.event.StockCommandReply;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -22,4 +23,13 @@ public class InventoryEventPublisher {
                 event
         );
     }
+    
+    public void publishStockCommandReply(StockCommandReply reply) {
+        log.info("Publishing {} reply for order: {}", reply.getType(), reply.getOrderId());
+        rabbitTemplate.convertAndSend(
+                RabbitMQConfig.INVENTORY_EXCHANGE,
+                RabbitMQConfig.SAGA_STOCK_REPLY_ROUTING_KEY,
+                reply
+        );
+    }
 }
@@ -1,9 +1,15 @@
 package com.stockmanagement.inventory_service.repository;
 
 import com.stockmanagement.inventory_service.entity.Inventory;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +21,38 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     
     @Query("SELECT i FROM Inventory i WHERE i.availableQuantity <= i.minimumQuantity")
     List<Inventory> findLowStockItems();
-}
\ No newline at end of file
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.productId = :productId AND i.warehouseId = :warehouseId")
+    Optional<Inventory> findForUpdate(@Param("productId") Long productId, @Param("warehouseId") Long warehouseId);
+    
+    // Rows are locked in product id order so concurrent multi-line reservations cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.warehouseId = :warehouseId AND i.productId IN :productIds ORDER BY i.productId")
+    List<Inventory> findAllForUpdate(@Param("warehouseId") Long warehouseId, @Param("productIds") Collection<Long> productIds);
+    
+    boolean existsByProductIdAndWarehouseId(Long productId, Long warehouseId);
+    
+    // Bulk updates skip the entity callbacks, so available_quantity and updated_at are maintained here
+    @Modifying
+    @Query("UPDATE Inventory i SET i.reservedQuantity = i.reservedQuantity + :quantity, " +
+            "i.availableQuantity = i.quantity - i.reservedQuantity - :quantity, i.updatedAt = :now " +
+            "WHERE i.productId = :productId AND i.warehouseId = :warehouseId " +
+            "AND i.quantity - i.reservedQuantity >= :quantity")
+    int reserveIfAvailable(@Param("productId") Long productId,
+                           @Param("warehouseId") Long warehouseId,
+                           @Param("quantity") Integer quantity,
+                           @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE Inventory i SET " +
+            "i.reservedQuantity = CASE WHEN i.reservedQuantity > :quantity THEN i.reservedQuantity - :quantity ELSE 0 END, " +
+            "i.availableQuantity = CASE WHEN i.reservedQuantity > :quantity " +
+            "THEN i.quantity - i.reservedQuantity + :quantity ELSE i.quantity END, " +
+            "i.updatedAt = :now " +
+            "WHERE i.productId = :productId AND i.warehouseId = :warehouseId")
+    int releaseReserved(@Param("productId") Long productId,
+                        @Param("warehouseId") Long warehouseId,
+                        @Param("quantity") Integer quantity,
+                        @Param("now") LocalDateTime now);
+}
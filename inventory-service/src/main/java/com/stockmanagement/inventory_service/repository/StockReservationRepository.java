@@ -0,0 +1,26 @@
+package com.stockmanagement.inventory_service.repository;
+
+import com.stockmanagement.inventory_service.entity.ReservationStatus;
+import com.stockmanagement.inventory_service.entity.StockReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.orderId = :orderId")
+    Optional<StockReservation> findByOrderIdForUpdate(@Param("orderId") Long orderId);
+    
+    @Query("SELECT r.orderId FROM StockReservation r WHERE r.status = :status AND r.expiresAt < :now ORDER BY r.expiresAt")
+    List<Long> findExpiredOrderIds(@Param("status") ReservationStatus status, @Param("now") LocalDateTime now,
+                                   Limit limit);
+}
@@ -0,0 +1,302 @@
+package com.stockmanagement.inventory_service.service;
+
+import com.stockmanagement.inventory_service.cache.InventoryCacheHelper;
+import com.stockmanagement.inventory_service.dto.StockReservationItem;
+import com.stockmanagement.inventory_service.dto.StockReservationRequest;
+import com.stockmanagement.inventory_service.entity.Inventory;
+import com.stockmanagement.inventory_service.exception.InventoryNotFoundException;
+import com.stockmanagement.inventory_service.repository.InventoryRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Single-unit reservations on a hot SKU all queue on the same row lock. Here they wait in an in-process queue
+// per (product, warehouse) instead, and each flush settles up to max-batch-size of them with one locked read and
+// one row update. Requests are granted strictly in arrival order; once one does not fit, the rest of its batch
+// is rejected too, so a small late request can never overtake a larger earlier one. A queue is dropped as soon as
+// it drains, so the map only holds SKUs with reservations in flight.
+@Service
+@Slf4j
+public class GroupCommitReservationService {
+    
+    private final InventoryRepository inventoryRepository;
+    private final InventoryCacheHelper cacheHelper;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionSummary batchSize;
+    private final Timer waitTime;
+    private final Map<SkuKey, SkuQueue> queues = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+    
+    @Value("${inventory.reservation.mode:CONDITIONAL_UPDATE}")
+    private ReservationMode reservationMode;
+    
+    @Value("${inventory.reservation.group-commit.max-wait-ms:2}")
+    private long maxWaitMs;
+    
+    @Value("${inventory.reservation.group-commit.max-batch-size:200}")
+    private int maxBatchSize;
+    
+    @Value("${inventory.reservation.group-commit.timeout-ms:5000}")
+    private long timeoutMs;
+    
+    public GroupCommitReservationService(InventoryRepository inventoryRepository,
+                                         InventoryCacheHelper cacheHelper,
+                                         PlatformTransactionManager transactionManager,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${inventory.reservation.group-commit.threads:4}") int threads) {
+        this.inventoryRepository = inventoryRepository;
+        this.cacheHelper = cacheHelper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = DistributionSummary.builder("inventory.reservation.batch.size")
+                .description("Reservations settled per group commit")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.waitTime = Timer.builder("inventory.reservation.batch.wait")
+                .description("Time a reservation waited in its queue before its batch was applied")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        
+        AtomicInteger threadCount = new AtomicInteger();
+        this.flusher = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "reservation-group-commit-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    public boolean isActive() {
+        return reservationMode == ReservationMode.GROUP_COMMIT;
+    }
+    
+    // Orders reserve through /reserve/batch; a batch on a single SKU is the same request as a single-line reservation
+    // and can join that SKU's queue. Batches spanning several SKUs must lock all their rows in one transaction.
+    public boolean accepts(StockReservationRequest request) {
+        return isActive() && request.getItems().stream().map(StockReservationItem::getProductId).distinct().count() == 1;
+    }
+    
+    public boolean reserve(StockReservationRequest request) {
+        int quantity = request.getItems().stream().mapToInt(StockReservationItem::getQuantity).sum();
+        return reserve(request.getItems().get(0).getProductId(), request.getWarehouseId(), quantity);
+    }
+    
+    public boolean reserve(Long productId, Long warehouseId, Integer quantity) {
+        try {
+            return submit(productId, warehouseId, quantity).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new IllegalStateException("Reservation was not settled within " + timeoutMs + " ms", e.getCause());
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    public CompletableFuture<Boolean> submit(Long productId, Long warehouseId, Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Reservation quantity must be positive");
+        }
+        
+        SkuKey key = new SkuKey(productId, warehouseId);
+        PendingReservation reservation = new PendingReservation(quantity, System.nanoTime());
+        while (true) {
+            SkuQueue queue = queues.computeIfAbsent(key, SkuQueue::new);
+            synchronized (queue) {
+                // The queue drained and was dropped after we looked it up; enqueue on its replacement
+                if (queue.retired) {
+                    continue;
+                }
+                queue.pending.add(reservation);
+                if (!queue.flushPending) {
+                    queue.flushPending = true;
+                    scheduleFlush(queue, queue.pending.size() >= maxBatchSize ? 0 : maxWaitMs);
+                } else if (queue.pending.size() >= maxBatchSize && queue.timer != null && queue.timer.cancel(false)) {
+                    // A full batch does not wait out the rest of the window
+                    scheduleFlush(queue, 0);
+                }
+            }
+            return reservation.result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    // Only one flush per queue is scheduled or running at a time, which is what keeps batches in arrival order
+    private void flush(SkuQueue queue) {
+        List<PendingReservation> batch = new ArrayList<>();
+        synchronized (queue) {
+            queue.timer = null;
+            while (batch.size() < maxBatchSize && !queue.pending.isEmpty()) {
+                PendingReservation reservation = queue.pending.poll();
+                // Callers that timed out have given up; granting them would strand the stock
+                if (!reservation.result.isDone()) {
+                    batch.add(reservation);
+                }
+            }
+        }
+        
+        try {
+            if (!batch.isEmpty()) {
+                apply(queue.key, batch);
+            }
+        } catch (Exception e) {
+            log.error("Group commit failed: product={}, warehouse={}, batch={}",
+                    queue.key.productId(), queue.key.warehouseId(), batch.size(), e);
+            batch.forEach(reservation -> reservation.result.completeExceptionally(e));
+        } finally {
+            synchronized (queue) {
+                if (queue.pending.isEmpty()) {
+                    queue.flushPending = false;
+                    queue.retired = true;
+                    queues.remove(queue.key, queue);
+                } else {
+                    // Whatever arrived during this flush has already waited at least one commit
+                    scheduleFlush(queue, 0);
+                }
+            }
+        }
+    }
+    
+    private void apply(SkuKey key, List<PendingReservation> batch) {
+        long startedAt = System.nanoTime();
+        batch.forEach(reservation -> waitTime.record(startedAt - reservation.enqueuedAt, TimeUnit.NANOSECONDS));
+        batchSize.record(batch.size());
+        
+        boolean[] granted = new boolean[batch.size()];
+        int reserved = transactionTemplate.execute(status -> {
+            Inventory inventory = inventoryRepository.findForUpdate(key.productId(), key.warehouseId())
+                    .orElseThrow(() -> new InventoryNotFoundException(
+                            "Inventory not found for product: " + key.productId()));
+            
+            int available = inventory.getQuantity() - inventory.getReservedQuantity();
+            int total = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                int quantity = batch.get(i).quantity;
+                if (quantity > available - total) {
+                    break;
+                }
+                granted[i] = true;
+                total += quantity;
+            }
+            
+            if (total > 0) {
+                inventory.setReservedQuantity(inventory.getReservedQuantity() + total);
+                inventoryRepository.save(inventory);
+            }
+            return total;
+        });
+        
+        if (reserved > 0) {
+            cacheHelper.evictInventory(key.productId(), key.warehouseId());
+        }
+        int stranded = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            if (!batch.get(i).result.complete(granted[i]) && granted[i]) {
+                stranded += batch.get(i).quantity;
+            }
+        }
+        if (stranded > 0) {
+            releaseStranded(key, stranded);
+        }
+        log.debug("Group commit: product={}, warehouse={}, batch={}, reserved={}",
+                key.productId(), key.warehouseId(), batch.size(), reserved);
+    }
+    
+    // A caller timed out while its grant was being committed and will never release it
+    private void releaseStranded(SkuKey key, int quantity) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Inventory inventory = inventoryRepository.findForUpdate(key.productId(), key.warehouseId())
+                        .orElseThrow(() -> new InventoryNotFoundException(
+                                "Inventory not found for product: " + key.productId()));
+                inventory.setReservedQuantity(Math.max(0, inventory.getReservedQuantity() - quantity));
+                inventoryRepository.save(inventory);
+            });
+            cacheHelper.evictInventory(key.productId(), key.warehouseId());
+            log.warn("Released {} units granted to timed out reservations: product={}, warehouse={}",
+                    quantity, key.productId(), key.warehouseId());
+        } catch (Exception e) {
+            log.error("Failed to release {} units granted to timed out reservations: product={}, warehouse={}",
+                    quantity, key.productId(), key.warehouseId(), e);
+        }
+    }
+    
+    // Called with the queue lock held
+    private void scheduleFlush(SkuQueue queue, long delayMs) {
+        try {
+            queue.timer = flusher.schedule(() -> flush(queue), delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            failPending(queue);
+        }
+    }
+    
+    // Called with the queue lock held
+    private void failPending(SkuQueue queue) {
+        IllegalStateException error = new IllegalStateException("Reservation group commit is shut down");
+        queue.pending.forEach(reservation -> reservation.result.completeExceptionally(error));
+        queue.pending.clear();
+        queue.flushPending = false;
+        queue.timer = null;
+    }
+    
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Delayed flushes still run after shutdown, so queued callers are answered before the pool stops
+        flusher.shutdown();
+        if (!flusher.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("Reservation group commit did not drain within 5 seconds");
+            flusher.shutdownNow();
+        }
+        // Nothing can flush any more; answer whoever is still waiting
+        for (SkuQueue queue : queues.values()) {
+            synchronized (queue) {
+                failPending(queue);
+            }
+        }
+    }
+    
+    private record SkuKey(Long productId, Long warehouseId) {
+    }
+    
+    private static final class SkuQueue {
+        private final SkuKey key;
+        private final ArrayDeque<PendingReservation> pending = new ArrayDeque<>();
+        private boolean flushPending;
+        private boolean retired;
+        private ScheduledFuture<?> timer;
+        
+        private SkuQueue(SkuKey key) {
+            this.key = key;
+        }
+    }
+    
+    private static final class PendingReservation {
+        private final int quantity;
+        private final long enqueuedAt;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        
+        private PendingReservation(int quantity, long enqueuedAt) {
+            this.quantity = quantity;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.stockmanagement.inventory_service.service;
+
+import com.stockmanagement.inventory_service.cache.HotStockCounters;
+import com.stockmanagement.inventory_service.dto.InventoryResponse;
+import com.stockmanagement.inventory_service.entity.Inventory;
+import com.stockmanagement.inventory_service.exception.InventoryNotFoundException;
+import com.stockmanagement.inventory_service.repository.InventoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+
+// Flash-sale SKUs listed in inventory.hot-stock.product-ids keep their reserved quantity in Redis
+// (HotStockCounters) instead of behind a Postgres row lock; HotStockWriteBehind copies it back to the
+// inventory table. Reservations are applied in Redis immediately and undone if the surrounding transaction
+// rolls back; releases and quantity changes are applied only once the transaction commits.
+//
+// Durability window: a reservation acknowledged here exists only in Redis until the next flush
+// (inventory.hot-stock.flush-interval-ms, 500 ms by default). A crash of this service loses nothing, because
+// startup recovery flushes whatever Redis holds. Losing Redis itself loses the changes made since the last
+// flush plus whatever Redis had not persisted yet (about one second with appendfsync everysec); the counters
+// are then rebuilt from Postgres, so that window can be reserved twice. Reads of inventory.available_quantity
+// straight from the database, such as the low-stock report, lag by up to one flush interval.
+@Service
+@Slf4j
+public class HotStockService {
+    
+    private final HotStockCounters counters;
+    private final InventoryRepository inventoryRepository;
+    private final Set<Long> hotProductIds;
+    
+    public HotStockService(HotStockCounters counters,
+                           InventoryRepository inventoryRepository,
+                           @Value("${inventory.hot-stock.product-ids:}") Set<Long> hotProductIds) {
+        this.counters = counters;
+        this.inventoryRepository = inventoryRepository;
+        this.hotProductIds = Set.copyOf(hotProductIds);
+    }
+    
+    public boolean isEnabled() {
+        return !hotProductIds.isEmpty();
+    }
+    
+    public boolean isHot(Long productId) {
+        return hotProductIds.contains(productId);
+    }
+    
+    public Set<Long> getHotProductIds() {
+        return hotProductIds;
+    }
+    
+    // Moves the hot lines out of quantities and returns them
+    public Map<Long, Integer> extractHot(Map<Long, Integer> quantities) {
+        Map<Long, Integer> hot = new TreeMap<>();
+        if (!isEnabled()) {
+            return hot;
+        }
+        Iterator<Map.Entry<Long, Integer>> entries = quantities.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Long, Integer> entry = entries.next();
+            if (isHot(entry.getKey())) {
+                hot.put(entry.getKey(), entry.getValue());
+                entries.remove();
+            }
+        }
+        return hot;
+    }
+    
+    // All lines or none
+    public boolean reserve(Long warehouseId, Map<Long, Integer> quantities) {
+        List<Long> productIds = new ArrayList<>(quantities.keySet());
+        List<Integer> amounts = new ArrayList<>(quantities.values());
+        
+        long result = runLoading(warehouseId, productIds,
+                () -> counters.reserve(warehouseId, productIds, amounts));
+        if (result == 0) {
+            log.warn("Insufficient hot stock: warehouse={}, lines={}", warehouseId, quantities);
+            return false;
+        }
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        log.info("Undoing hot stock reservation after rollback: warehouse={}", warehouseId);
+                        releaseNow(warehouseId, productIds, amounts);
+                    }
+                }
+            });
+        }
+        log.info("Hot stock reserved: warehouse={}, lines={}", warehouseId, quantities);
+        return true;
+    }
+    
+    public void release(Long warehouseId, Map<Long, Integer> quantities) {
+        List<Long> productIds = new ArrayList<>(quantities.keySet());
+        List<Integer> amounts = new ArrayList<>(quantities.values());
+        afterCommit(() -> releaseNow(warehouseId, productIds, amounts));
+    }
+    
+    // The database row already carries the new quantity; the counter only mirrors it for availability checks
+    public void adjustQuantity(Long productId, Long warehouseId, int delta) {
+        if (delta != 0) {
+            afterCommit(() -> counters.adjustQuantity(productId, warehouseId, delta));
+        }
+    }
+    
+    public void overlay(InventoryResponse response) {
+        if (!isHot(response.getProductId())) {
+            return;
+        }
+        int[] counter = counters.get(response.getProductId(), response.getWarehouseId());
+        if (counter != null) {
+            response.setQuantity(counter[0]);
+            response.setReservedQuantity(counter[1]);
+            response.setAvailableQuantity(counter[0] - counter[1]);
+            response.setLowStock(response.getMinimumQuantity() != null
+                    && response.getAvailableQuantity() <= response.getMinimumQuantity());
+        }
+    }
+    
+    public boolean load(Inventory inventory) {
+        return counters.load(inventory.getProductId(), inventory.getWarehouseId(), inventory.getQuantity(),
+                inventory.getReservedQuantity(),
+                inventory.getCounterVersion() != null ? inventory.getCounterVersion() : 0L);
+    }
+    
+    private void releaseNow(Long warehouseId, List<Long> productIds, List<Integer> amounts) {
+        runLoading(warehouseId, productIds, () -> counters.release(warehouseId, productIds, amounts));
+        log.info("Hot stock released: warehouse={}, products={}", warehouseId, productIds);
+    }
+    
+    // A counter missing from Redis (first use, or Redis lost its data) is loaded from Postgres and the script retried
+    private long runLoading(Long warehouseId, List<Long> productIds, LongSupplier script) {
+        for (int attempt = 0; attempt <= productIds.size(); attempt++) {
+            long result = script.getAsLong();
+            if (result >= 0) {
+                return result;
+            }
+            Long productId = productIds.get((int) -result - 1);
+            Inventory inventory = inventoryRepository.findByProductIdAndWarehouseId(productId, warehouseId)
+                    .orElseThrow(() -> new InventoryNotFoundException(
+                            "Inventory not found for product: " + productId + " and warehouse: " + warehouseId));
+            load(inventory);
+        }
+        throw new IllegalStateException("Hot stock counters could not be loaded for warehouse " + warehouseId);
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,111 @@
+package com.stockmanagement.inventory_service.service;
+
+import com.stockmanagement.inventory_service.cache.HotStockCounters;
+import com.stockmanagement.inventory_service.cache.HotStockCounters.DirtyCounter;
+import com.stockmanagement.inventory_service.entity.Inventory;
+import com.stockmanagement.inventory_service.repository.InventoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Copies hot stock counters from Redis to the inventory table. Values are absolute and carry the counter
+// version, so a flush that is replayed, or overtaken by another instance's newer one, never moves a row back.
+@Component
+@Slf4j
+public class HotStockWriteBehind {
+    
+    private static final String FLUSH_SQL = "UPDATE inventory SET reserved_quantity = ?, "
+            + "available_quantity = quantity - ?, counter_version = ?, updated_at = ? "
+            + "WHERE product_id = ? AND warehouse_id = ? AND (counter_version IS NULL OR counter_version < ?)";
+    
+    private final HotStockCounters counters;
+    private final HotStockService hotStockService;
+    private final InventoryRepository inventoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${inventory.hot-stock.flush-batch-size:500}")
+    private int batchSize;
+    
+    public HotStockWriteBehind(HotStockCounters counters,
+                               HotStockService hotStockService,
+                               InventoryRepository inventoryRepository,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager) {
+        this.counters = counters;
+        this.hotStockService = hotStockService;
+        this.inventoryRepository = inventoryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    // Counters that survived a restart of this service are newer than Postgres and are flushed; missing ones
+    // are rebuilt from the table
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        if (!hotStockService.isEnabled()) {
+            return;
+        }
+        int loaded = 0;
+        int kept = 0;
+        for (Long productId : hotStockService.getHotProductIds()) {
+            for (Inventory inventory : inventoryRepository.findByProductId(productId)) {
+                if (hotStockService.load(inventory)) {
+                    loaded++;
+                } else {
+                    kept++;
+                }
+            }
+        }
+        int flushed = flush();
+        log.info("Hot stock counters recovered: loaded={}, kept={}, flushed={}", loaded, kept, flushed);
+    }
+    
+    @Scheduled(fixedDelayString = "${inventory.hot-stock.flush-interval-ms:500}")
+    public int flush() {
+        if (!hotStockService.isEnabled()) {
+            return 0;
+        }
+        int flushed = 0;
+        List<DirtyCounter> batch;
+        do {
+            batch = counters.drainDirty(batchSize);
+            if (!batch.isEmpty() && !write(batch)) {
+                break;
+            }
+            flushed += batch.size();
+        } while (batch.size() == batchSize);
+        return flushed;
+    }
+    
+    private boolean write(List<DirtyCounter> batch) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch, batch.size(),
+                    (statement, counter) -> {
+                        statement.setInt(1, counter.reservedQuantity());
+                        statement.setInt(2, counter.reservedQuantity());
+                        statement.setLong(3, counter.version());
+                        statement.setTimestamp(4, now);
+                        statement.setLong(5, counter.productId());
+                        statement.setLong(6, counter.warehouseId());
+                        statement.setLong(7, counter.version());
+                    }));
+            log.debug("Flushed {} hot stock counters", batch.size());
+            return true;
+        } catch (Exception e) {
+            log.error("Error flushing {} hot stock counters, they will be retried", batch.size(), e);
+            counters.markDirty(batch);
+            return false;
+        }
+    }
+}
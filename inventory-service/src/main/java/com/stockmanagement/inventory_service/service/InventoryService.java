@@ -1,6 +1,7 @@
 package com.stockmanagement.inventory_service.service;
 
 import com.stockmanagement.inventory_service.cache.InventoryCacheHelper;
+import com.stockmanagement.inventory_service.cache.WarehouseCache;
 import com.stockmanagement.inventory_service.client.ProductClient;
 import com.stockmanagement.inventory_service.dto.*;
 import com.stockmanagement.inventory_service.entity.Inventory;
@@ -12,12 +13,21 @@ import com.stockmanagement.inventory_service.exception.InventoryNotFoundExceptio
 import com.stockmanagement.inventory_service.exception.WarehouseNotFoundException;
 import com.stockmanagement.inventory_service.repository.InventoryRepository;
 import com.stockmanagement.inventory_service.repository.StockMovementRepository;
-import com.stockmanagement.inventory_service.repository.WarehouseRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,11 +37,23 @@ public class InventoryService {
     
     private final InventoryRepository inventoryRepository;
     private final StockMovementRepository stockMovementRepository;
-    private final WarehouseRepository warehouseRepository;
+    private final WarehouseCache warehouseCache;
     private final ProductClient productClient;
     private final InventoryCacheHelper cacheHelper;
+    private final HotStockService hotStockService;
     //private final Tracer tracer;
     
+    private static final int ENRICHMENT_PAGE_SIZE = 500;
+    
+    @Value("${inventory.reservation.mode:CONDITIONAL_UPDATE}")
+    private ReservationMode reservationMode;
+    
+    @Value("${inventory.reservation.lock-attempts:20}")
+    private int lockAttempts;
+    
+    @Value("${inventory.reservation.lock-retry-delay-ms:100}")
+    private long lockRetryDelayMs;
+    
     @Transactional
     public InventoryResponse createInventory(InventoryRequest request) {
         Inventory inventory = new Inventory();
@@ -60,6 +82,7 @@ public class InventoryService {
         InventoryResponse cached = cacheHelper.getInventory(productId, warehouseId);
         if (cached != null) {
             log.debug("Inventory found in cache: product={}, warehouse={}", productId, warehouseId);
+            hotStockService.overlay(cached);
             return cached;
         }
         
@@ -74,27 +97,22 @@ public class InventoryService {
     }
     
     public List<InventoryResponse> getInventoryByProduct(Long productId) {
-        return inventoryRepository.findByProductId(productId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return mapToResponses(inventoryRepository.findByProductId(productId));
     }
     
     public List<InventoryResponse> getInventoryByWarehouse(Long warehouseId) {
-        return inventoryRepository.findByWarehouseId(warehouseId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return mapToResponses(inventoryRepository.findByWarehouseId(warehouseId));
     }
     
     public List<InventoryResponse> getLowStockItems() {
-        return inventoryRepository.findLowStockItems().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return mapToResponses(inventoryRepository.findLowStockItems());
     }
     
     @Transactional
     public InventoryResponse processStockMovement(StockMovementRequest request) {
+        // Locked so the save cannot overwrite a reserved quantity written concurrently by another path
         Inventory inventory = inventoryRepository
-                .findByProductIdAndWarehouseId(request.getProductId(), request.getWarehouseId())
+                .findForUpdate(request.getProductId(), request.getWarehouseId())
                 .orElseThrow(() -> new InventoryNotFoundException(
                         "Inventory not found for product: " + request.getProductId()));
         
@@ -104,6 +122,10 @@ public class InventoryService {
             throw new InsufficientStockException("Insufficient stock for this operation");
         }
         
+        if (hotStockService.isHot(inventory.getProductId())) {
+            hotStockService.adjustQuantity(inventory.getProductId(), inventory.getWarehouseId(),
+                    newQuantity - inventory.getQuantity());
+        }
         inventory.setQuantity(newQuantity);
         Inventory updatedInventory = inventoryRepository.save(inventory);
         
@@ -122,21 +144,26 @@ public class InventoryService {
         return response;
     }
     
+    // In GROUP_COMMIT mode the controller hands single reservations to GroupCommitReservationService;
+    // anything that still reaches this method is already inside a transaction and uses the guarded UPDATE
     @Transactional
     public boolean reserveStock(Long productId, Long warehouseId, Integer quantity) {
-        if (!cacheHelper.acquireLock(productId, warehouseId)) {
-            log.warn("Failed to acquire lock for reservation: product={}, warehouse={}", productId, warehouseId);
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-            return reserveStock(productId, warehouseId, quantity);
+        if (hotStockService.isHot(productId)) {
+            return hotStockService.reserve(warehouseId, Map.of(productId, quantity));
+        }
+        
+        if (reservationMode != ReservationMode.REDIS_LOCK) {
+            return reserveStockConditionally(productId, warehouseId, quantity);
+        }
+        
+        if (!acquireLockWithRetry(productId, warehouseId)) {
+            log.warn("Gave up reserving after {} lock attempts: product={}, warehouse={}", lockAttempts, productId, warehouseId);
+            return false;
         }
         
         try {
             Inventory inventory = inventoryRepository
-                    .findByProductIdAndWarehouseId(productId, warehouseId)
+                    .findForUpdate(productId, warehouseId)
                     .orElseThrow(() -> new InventoryNotFoundException(
                             "Inventory not found for product: " + productId));
             
@@ -162,20 +189,24 @@ public class InventoryService {
     
     @Transactional
     public void releaseStock(Long productId, Long warehouseId, Integer quantity) {
-        if (!cacheHelper.acquireLock(productId, warehouseId)) {
-            log.warn("Failed to acquire lock for release: product={}, warehouse={}", productId, warehouseId);
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-            releaseStock(productId, warehouseId, quantity);
+        if (hotStockService.isHot(productId)) {
+            hotStockService.release(warehouseId, Map.of(productId, quantity));
+            return;
+        }
+        
+        if (reservationMode != ReservationMode.REDIS_LOCK) {
+            releaseStockConditionally(productId, warehouseId, quantity);
             return;
         }
         
+        if (!acquireLockWithRetry(productId, warehouseId)) {
+            throw new IllegalStateException("Could not lock inventory for release: product=" + productId
+                    + ", warehouse=" + warehouseId);
+        }
+        
         try {
             Inventory inventory = inventoryRepository
-                    .findByProductIdAndWarehouseId(productId, warehouseId)
+                    .findForUpdate(productId, warehouseId)
                     .orElseThrow(() -> new InventoryNotFoundException(
                             "Inventory not found for product: " + productId));
             
@@ -192,6 +223,209 @@ public class InventoryService {
         }
     }
     
+    // The availability check and the increment are one statement, so no lock is needed and stock cannot oversell
+    private boolean reserveStockConditionally(Long productId, Long warehouseId, Integer quantity) {
+        int updated = inventoryRepository.reserveIfAvailable(productId, warehouseId, quantity, LocalDateTime.now());
+        if (updated == 0) {
+            if (!inventoryRepository.existsByProductIdAndWarehouseId(productId, warehouseId)) {
+                throw new InventoryNotFoundException("Inventory not found for product: " + productId);
+            }
+            log.warn("Insufficient stock: product={}, warehouse={}, requested={}", productId, warehouseId, quantity);
+            return false;
+        }
+        
+        cacheHelper.evictInventory(productId, warehouseId);
+        log.info("Stock reserved: product={}, quantity={}", productId, quantity);
+        return true;
+    }
+    
+    private void releaseStockConditionally(Long productId, Long warehouseId, Integer quantity) {
+        if (inventoryRepository.releaseReserved(productId, warehouseId, quantity, LocalDateTime.now()) == 0) {
+            throw new InventoryNotFoundException("Inventory not found for product: " + productId);
+        }
+        
+        cacheHelper.evictInventory(productId, warehouseId);
+        log.info("Stock released: product={}, quantity={}", productId, quantity);
+    }
+    
+    private boolean acquireLockWithRetry(Long productId, Long warehouseId) {
+        for (int attempt = 1; attempt <= lockAttempts; attempt++) {
+            if (cacheHelper.acquireLock(productId, warehouseId)) {
+                return true;
+            }
+            log.debug("Lock busy (attempt {}): product={}, warehouse={}", attempt, productId, warehouseId);
+            try {
+                Thread.sleep(lockRetryDelayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return false;
+    }
+    
+    @Transactional
+    public boolean reserveStockBatch(StockReservationRequest request) {
+        Map<Long, Integer> quantities = mergeQuantities(request.getItems());
+        Map<Long, Integer> hotQuantities = hotStockService.extractHot(quantities);
+        List<Inventory> inventories = lockInventories(request.getWarehouseId(), quantities);
+        
+        for (Inventory inventory : inventories) {
+            int requested = quantities.get(inventory.getProductId());
+            if (inventory.getAvailableQuantity() < requested) {
+                log.warn("Insufficient stock for batch reservation: product={}, available={}, requested={}",
+                        inventory.getProductId(), inventory.getAvailableQuantity(), requested);
+                return false;
+            }
+        }
+        
+        // Hot lines go last: the database rows are locked and checked, so only Redis can still say no
+        if (!hotQuantities.isEmpty() && !hotStockService.reserve(request.getWarehouseId(), hotQuantities)) {
+            return false;
+        }
+        
+        for (Inventory inventory : inventories) {
+            inventory.setReservedQuantity(inventory.getReservedQuantity() + quantities.get(inventory.getProductId()));
+        }
+        inventoryRepository.saveAll(inventories);
+        
+        inventories.forEach(inventory -> cacheHelper.updateQuantityInCache(inventory.getProductId(),
+                inventory.getWarehouseId(), inventory.getQuantity(), inventory.getReservedQuantity()));
+        
+        log.info("Stock reserved in batch: warehouse={}, lines={}", request.getWarehouseId(), inventories.size());
+        return true;
+    }
+    
+    @Transactional
+    public void releaseStockBatch(StockReservationRequest request) {
+        Map<Long, Integer> quantities = mergeQuantities(request.getItems());
+        Map<Long, Integer> hotQuantities = hotStockService.extractHot(quantities);
+        if (!hotQuantities.isEmpty()) {
+            hotStockService.release(request.getWarehouseId(), hotQuantities);
+        }
+        List<Inventory> inventories = lockInventories(request.getWarehouseId(), quantities);
+        
+        for (Inventory inventory : inventories) {
+            int released = quantities.get(inventory.getProductId());
+            inventory.setReservedQuantity(Math.max(0, inventory.getReservedQuantity() - released));
+        }
+        inventoryRepository.saveAll(inventories);
+        
+        inventories.forEach(inventory -> cacheHelper.updateQuantityInCache(inventory.getProductId(),
+                inventory.getWarehouseId(), inventory.getQuantity(), inventory.getReservedQuantity()));
+        
+        log.info("Stock released in batch: warehouse={}, lines={}", request.getWarehouseId(), inventories.size());
+    }
+    
+    // Each request is all-or-nothing on its own; every row is locked once, warehouse by warehouse in id order
+    @Transactional
+    public List<Boolean> reserveStockBulk(List<StockReservationRequest> requests) {
+        Map<Long, Map<Long, Inventory>> locked = lockInventoriesBulk(requests);
+        Map<Long, Inventory> touched = new LinkedHashMap<>();
+        List<Boolean> results = new ArrayList<>(requests.size());
+        
+        for (StockReservationRequest request : requests) {
+            Map<Long, Inventory> warehouseInventories = locked.getOrDefault(request.getWarehouseId(), Map.of());
+            Map<Long, Integer> quantities = mergeQuantities(request.getItems());
+            Map<Long, Integer> hotQuantities = hotStockService.extractHot(quantities);
+            
+            boolean available = quantities.entrySet().stream().allMatch(entry -> {
+                Inventory inventory = warehouseInventories.get(entry.getKey());
+                return inventory != null
+                        && inventory.getQuantity() - inventory.getReservedQuantity() >= entry.getValue();
+            }) && (hotQuantities.isEmpty() || hotStockService.reserve(request.getWarehouseId(), hotQuantities));
+            
+            if (available) {
+                quantities.forEach((productId, quantity) -> {
+                    Inventory inventory = warehouseInventories.get(productId);
+                    inventory.setReservedQuantity(inventory.getReservedQuantity() + quantity);
+                    touched.put(inventory.getId(), inventory);
+                });
+            }
+            results.add(available);
+        }
+        
+        inventoryRepository.saveAll(touched.values());
+        touched.values().forEach(inventory -> cacheHelper.updateQuantityInCache(inventory.getProductId(),
+                inventory.getWarehouseId(), inventory.getQuantity(), inventory.getReservedQuantity()));
+        
+        log.info("Stock reserved in bulk: requests={}, reserved={}", requests.size(),
+                results.stream().filter(Boolean::booleanValue).count());
+        return results;
+    }
+    
+    @Transactional
+    public void releaseStockBulk(List<StockReservationRequest> requests) {
+        Map<Long, Map<Long, Inventory>> locked = lockInventoriesBulk(requests);
+        Map<Long, Inventory> touched = new LinkedHashMap<>();
+        
+        for (StockReservationRequest request : requests) {
+            Map<Long, Inventory> warehouseInventories = locked.getOrDefault(request.getWarehouseId(), Map.of());
+            Map<Long, Integer> quantities = mergeQuantities(request.getItems());
+            Map<Long, Integer> hotQuantities = hotStockService.extractHot(quantities);
+            if (!hotQuantities.isEmpty()) {
+                hotStockService.release(request.getWarehouseId(), hotQuantities);
+            }
+            quantities.forEach((productId, quantity) -> {
+                Inventory inventory = warehouseInventories.get(productId);
+                if (inventory != null) {
+                    inventory.setReservedQuantity(Math.max(0, inventory.getReservedQuantity() - quantity));
+                    touched.put(inventory.getId(), inventory);
+                }
+            });
+        }
+        
+        inventoryRepository.saveAll(touched.values());
+        touched.values().forEach(inventory -> cacheHelper.updateQuantityInCache(inventory.getProductId(),
+                inventory.getWarehouseId(), inventory.getQuantity(), inventory.getReservedQuantity()));
+        
+        log.info("Stock released in bulk: requests={}", requests.size());
+    }
+    
+    private Map<Long, Map<Long, Inventory>> lockInventoriesBulk(List<StockReservationRequest> requests) {
+        Map<Long, Set<Long>> productsByWarehouse = new TreeMap<>();
+        for (StockReservationRequest request : requests) {
+            Set<Long> productIds = productsByWarehouse.computeIfAbsent(request.getWarehouseId(), id -> new TreeSet<>());
+            request.getItems().stream()
+                    .map(StockReservationItem::getProductId)
+                    .filter(productId -> !hotStockService.isHot(productId))
+                    .forEach(productIds::add);
+        }
+        
+        Map<Long, Map<Long, Inventory>> locked = new HashMap<>();
+        productsByWarehouse.values().removeIf(Set::isEmpty);
+        productsByWarehouse.forEach((warehouseId, productIds) -> locked.put(warehouseId,
+                inventoryRepository.findAllForUpdate(warehouseId, productIds).stream()
+                        .collect(Collectors.toMap(Inventory::getProductId, Function.identity()))));
+        return locked;
+    }
+    
+    private Map<Long, Integer> mergeQuantities(List<StockReservationItem> items) {
+        return items.stream()
+                .collect(Collectors.toMap(StockReservationItem::getProductId, StockReservationItem::getQuantity,
+                        Integer::sum, TreeMap::new));
+    }
+    
+    private List<Inventory> lockInventories(Long warehouseId, Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return List.of();
+        }
+        List<Inventory> inventories = inventoryRepository.findAllForUpdate(warehouseId, quantities.keySet());
+        
+        if (inventories.size() != quantities.size()) {
+            Set<Long> found = inventories.stream()
+                    .map(Inventory::getProductId)
+                    .collect(Collectors.toSet());
+            List<Long> missing = quantities.keySet().stream()
+                    .filter(productId -> !found.contains(productId))
+                    .collect(Collectors.toList());
+            throw new InventoryNotFoundException(
+                    "Inventory not found for products: " + missing + " and warehouse: " + warehouseId);
+        }
+        
+        return inventories;
+    }
+    
     private int calculateNewQuantity(int currentQuantity, MovementType type, int quantity) {
         return switch (type) {
             case IN, RETURN -> currentQuantity + quantity;
@@ -201,10 +435,56 @@ public class InventoryService {
     }
     
     private InventoryResponse mapToResponse(Inventory inventory) {
-        ProductDto product = productClient.getProductById(inventory.getProductId());
-        Warehouse warehouse = warehouseRepository.findById(inventory.getWarehouseId())
-                .orElseThrow(() -> new WarehouseNotFoundException("Warehouse not found"));
+        return mapToResponses(List.of(inventory)).get(0);
+    }
+    
+    // Rows are enriched a page at a time with one product batch call; product ids already resolved earlier in the
+    // same call are not looked up again, and warehouses come from the in-memory WarehouseCache
+    private List<InventoryResponse> mapToResponses(List<Inventory> inventories) {
+        Map<Long, ProductDto> products = new HashMap<>();
+        List<InventoryResponse> responses = new ArrayList<>(inventories.size());
         
+        for (int from = 0; from < inventories.size(); from += ENRICHMENT_PAGE_SIZE) {
+            List<Inventory> page = inventories.subList(from, Math.min(from + ENRICHMENT_PAGE_SIZE, inventories.size()));
+            resolveProducts(page, products);
+            
+            for (Inventory inventory : page) {
+                Warehouse warehouse = warehouseCache.find(inventory.getWarehouseId())
+                        .orElseThrow(() -> new WarehouseNotFoundException("Warehouse not found"));
+                responses.add(mapToResponse(inventory, products.get(inventory.getProductId()), warehouse));
+            }
+        }
+        return responses;
+    }
+    
+    private void resolveProducts(List<Inventory> page, Map<Long, ProductDto> products) {
+        List<Long> missing = page.stream()
+                .map(Inventory::getProductId)
+                .filter(productId -> !products.containsKey(productId))
+                .distinct()
+                .collect(Collectors.toList());
+        if (missing.isEmpty()) {
+            return;
+        }
+        
+        List<ProductDto> found = productClient.getProductsByIds(missing);
+        if (found != null) {
+            found.stream()
+                    .filter(product -> product != null && product.getId() != null)
+                    .forEach(product -> products.putIfAbsent(product.getId(), product));
+        }
+        // Same placeholder the single-product fallback uses, so one unknown product does not fail the listing
+        for (Long productId : missing) {
+            products.computeIfAbsent(productId, id -> {
+                ProductDto unavailable = new ProductDto();
+                unavailable.setId(id);
+                unavailable.setName("Product Unavailable");
+                return unavailable;
+            });
+        }
+    }
+    
+    private InventoryResponse mapToResponse(Inventory inventory, ProductDto product, Warehouse warehouse) {
         InventoryResponse response = new InventoryResponse();
         response.setId(inventory.getId());
         response.setProductId(inventory.getProductId());
@@ -220,6 +500,7 @@ public class InventoryService {
                             inventory.getAvailableQuantity() <= inventory.getMinimumQuantity());
         response.setCreatedAt(inventory.getCreatedAt());
         response.setUpdatedAt(inventory.getUpdatedAt());
+        hotStockService.overlay(response);
         return response;
     }
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.stockmanagement.inventory_service.service;
+
+public enum ReservationMode {
+    // Redis SETNX lock around a read-modify-write of the row
+    REDIS_LOCK,
+    // Single guarded UPDATE; the database row lock is the only serialization point
+    CONDITIONAL_UPDATE,
+    // Requests queue in-process per SKU and are settled in batches by GroupCommitReservationService
+    GROUP_COMMIT
+}
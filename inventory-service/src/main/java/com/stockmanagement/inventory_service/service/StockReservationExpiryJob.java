@@ -0,0 +1,27 @@
+package com.stockmanagement.inventory_service.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationExpiryJob {
+    
+    private static final int BATCH_SIZE = 100;
+    
+    private final StockReservationService reservationService;
+    
+    @Scheduled(fixedDelayString = "${inventory.reservation.sweep-interval-ms:5000}")
+    public void releaseExpiredReservations() {
+        for (Long orderId : reservationService.findExpiredReservations(BATCH_SIZE)) {
+            try {
+                reservationService.expire(orderId);
+            } catch (Exception e) {
+                log.error("Error expiring stock reservation for order: {}", orderId, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.stockmanagement.inventory_service.service;
+
+import com.stockmanagement.inventory_service.dto.StockHoldRequest;
+import com.stockmanagement.inventory_service.dto.StockReservationItem;
+import com.stockmanagement.inventory_service.dto.StockReservationRequest;
+import com.stockmanagement.inventory_service.entity.ReservationStatus;
+import com.stockmanagement.inventory_service.entity.StockReservation;
+import com.stockmanagement.inventory_service.entity.StockReservationLine;
+import com.stockmanagement.inventory_service.event.StockCommand;
+import com.stockmanagement.inventory_service.repository.StockReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Reservations are keyed by order id, so redelivered or reordered saga commands always get the same answer
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationService {
+    
+    private final StockReservationRepository reservationRepository;
+    private final InventoryService inventoryService;
+    
+    @Transactional
+    public boolean reserve(StockCommand command) {
+        return reserve(command.getOrderId(), command.getWarehouseId(), command.getItems(), command.getHoldSeconds());
+    }
+    
+    // Quote holds share the reservation lifecycle; their snowflake hold ids never collide with order ids
+    @Transactional
+    public boolean hold(StockHoldRequest request) {
+        return reserve(request.getHoldId(), request.getWarehouseId(), request.getItems(), request.getHoldSeconds());
+    }
+    
+    private boolean reserve(Long orderId, Long warehouseId, List<StockReservationItem> items, long holdSeconds) {
+        StockReservation existing = reservationRepository.findByOrderIdForUpdate(orderId).orElse(null);
+        if (existing != null) {
+            return existing.getStatus() == ReservationStatus.HELD || existing.getStatus() == ReservationStatus.CONFIRMED;
+        }
+        
+        boolean reserved = inventoryService.reserveStockBatch(new StockReservationRequest(warehouseId, items));
+        
+        StockReservation reservation = new StockReservation();
+        reservation.setOrderId(orderId);
+        reservation.setWarehouseId(warehouseId);
+        reservation.setStatus(reserved ? ReservationStatus.HELD : ReservationStatus.REJECTED);
+        reservation.setExpiresAt(LocalDateTime.now().plusSeconds(holdSeconds));
+        reservation.setLines(items.stream()
+                .map(item -> new StockReservationLine(item.getProductId(), item.getQuantity()))
+                .collect(Collectors.toList()));
+        reservationRepository.save(reservation);
+        
+        log.info("Stock reservation for order {}: {}", orderId, reservation.getStatus());
+        return reserved;
+    }
+    
+    @Transactional
+    public boolean confirm(Long orderId) {
+        StockReservation reservation = reservationRepository.findByOrderIdForUpdate(orderId).orElse(null);
+        if (reservation == null) {
+            return false;
+        }
+        if (reservation.getStatus() == ReservationStatus.HELD) {
+            if (reservation.getExpiresAt().isBefore(LocalDateTime.now())) {
+                releaseHeldStock(reservation, ReservationStatus.EXPIRED);
+                return false;
+            }
+            reservation.setStatus(ReservationStatus.CONFIRMED);
+            reservation.setExpiresAt(null);
+            reservationRepository.save(reservation);
+            log.info("Stock reservation confirmed for order: {}", orderId);
+        }
+        return reservation.getStatus() == ReservationStatus.CONFIRMED;
+    }
+    
+    // A release that overtakes its reserve leaves a RELEASED marker, so the late reserve is refused
+    @Transactional
+    public void release(Long orderId) {
+        StockReservation reservation = reservationRepository.findByOrderIdForUpdate(orderId).orElse(null);
+        if (reservation == null) {
+            StockReservation marker = new StockReservation();
+            marker.setOrderId(orderId);
+            marker.setStatus(ReservationStatus.RELEASED);
+            reservationRepository.save(marker);
+            log.info("Release for order {} arrived before its reservation", orderId);
+            return;
+        }
+        if (reservation.getStatus() == ReservationStatus.HELD || reservation.getStatus() == ReservationStatus.CONFIRMED) {
+            releaseHeldStock(reservation, ReservationStatus.RELEASED);
+        }
+    }
+    
+    @Transactional
+    public void expire(Long orderId) {
+        reservationRepository.findByOrderIdForUpdate(orderId)
+                .filter(reservation -> reservation.getStatus() == ReservationStatus.HELD)
+                .filter(reservation -> reservation.getExpiresAt().isBefore(LocalDateTime.now()))
+                .ifPresent(reservation -> releaseHeldStock(reservation, ReservationStatus.EXPIRED));
+    }
+    
+    public List<Long> findExpiredReservations(int limit) {
+        return reservationRepository.findExpiredOrderIds(ReservationStatus.HELD, LocalDateTime.now(), Limit.of(limit));
+    }
+    
+    private void releaseHeldStock(StockReservation reservation, ReservationStatus status) {
+        List<StockReservationItem> items = reservation.getLines().stream()
+                .map(line -> new StockReservationItem(line.getProductId(), line.getQuantity()))
+                .collect(Collectors.toList());
+        inventoryService.releaseStockBatch(new StockReservationRequest(reservation.getWarehouseId(), items));
+        
+        reservation.setStatus(status);
+        reservationRepository.save(reservation);
+        log.info("Stock reservation for order {} {}", reservation.getOrderId(), status.name().toLowerCase());
+    }
+}
@@ -0,0 +1,83 @@
+package com.stockmanagement.inventory_service.cache;
+
+import com.stockmanagement.inventory_service.entity.Warehouse;
+import com.stockmanagement.inventory_service.repository.WarehouseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WarehouseCacheTest {
+
+	private WarehouseRepository warehouseRepository;
+	private MeterRegistry meterRegistry;
+	private WarehouseCache warehouseCache;
+
+	@BeforeEach
+	void setUp() {
+		warehouseRepository = mock(WarehouseRepository.class);
+		meterRegistry = new SimpleMeterRegistry();
+		when(warehouseRepository.findAll()).thenReturn(List.of(warehouse(1L, "Main")));
+		warehouseCache = new WarehouseCache(warehouseRepository, meterRegistry);
+		ReflectionTestUtils.setField(warehouseCache, "missReloadIntervalMs", 60_000L);
+		warehouseCache.preload();
+	}
+
+	@Test
+	void readsAreServedFromThePreloadedMap() {
+		for (int i = 0; i < 100; i++) {
+			assertEquals("Main", warehouseCache.find(1L).orElseThrow().getName());
+		}
+
+		verify(warehouseRepository, times(1)).findAll();
+		assertEquals(1, reloads("startup"));
+		assertEquals(1, meterRegistry.get("inventory.warehouse.cache.size").gauge().value());
+		assertTrue(meterRegistry.get("inventory.warehouse.cache.staleness").timeGauge().value(TimeUnit.MILLISECONDS) >= 0);
+	}
+
+	@Test
+	void missReloadsOnceWithinTheInterval() {
+		when(warehouseRepository.findAll()).thenReturn(List.of(warehouse(1L, "Main"), warehouse(2L, "North")));
+
+		assertEquals("North", warehouseCache.find(2L).orElseThrow().getName());
+		assertFalse(warehouseCache.find(99L).isPresent());
+
+		verify(warehouseRepository, times(2)).findAll();
+		assertEquals(1, reloads("miss"));
+	}
+
+	@Test
+	void refreshSwapsTheMapAndFailedReloadKeepsTheOldOne() {
+		when(warehouseRepository.findAll()).thenReturn(List.of(warehouse(1L, "Renamed")));
+		warehouseCache.refresh();
+		assertEquals("Renamed", warehouseCache.find(1L).orElseThrow().getName());
+		assertEquals(1, reloads("write"));
+
+		when(warehouseRepository.findAll()).thenThrow(new IllegalStateException("database down"));
+		warehouseCache.scheduledReload();
+		assertEquals("Renamed", warehouseCache.find(1L).orElseThrow().getName());
+		assertEquals(1, meterRegistry.get("inventory.warehouse.cache.reload.failures").counter().count());
+	}
+
+	private double reloads(String trigger) {
+		return meterRegistry.get("inventory.warehouse.cache.reloads").tag("trigger", trigger).counter().count();
+	}
+
+	private static Warehouse warehouse(Long id, String name) {
+		Warehouse warehouse = new Warehouse();
+		warehouse.setId(id);
+		warehouse.setName(name);
+		return warehouse;
+	}
+}
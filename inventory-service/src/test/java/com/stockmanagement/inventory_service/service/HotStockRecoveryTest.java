@@ -0,0 +1,176 @@
+package com.stockmanagement.inventory_service.service;
+
+import com.stockmanagement.inventory_service.cache.HotStockCounters;
+import com.stockmanagement.inventory_service.entity.Inventory;
+import com.stockmanagement.inventory_service.repository.InventoryRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import redis.embedded.RedisServer;
+import javax.sql.DataSource;
+import java.net.ServerSocket;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Every boot() is a fresh service process against the same Redis and database
+@DataJpaTest(properties = "spring.cloud.config.enabled=false")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HotStockRecoveryTest {
+
+	private static final long PRODUCT_ID = 42L;
+	private static final long WAREHOUSE_ID = 1L;
+	private static final int STOCK = 100;
+
+	private static RedisServer redisServer;
+	private static LettuceConnectionFactory connectionFactory;
+	private static StringRedisTemplate redisTemplate;
+
+	@Autowired
+	private InventoryRepository inventoryRepository;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private HotStockService hotStockService;
+	private HotStockWriteBehind writeBehind;
+
+	@BeforeAll
+	static void startRedis() throws Exception {
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		redisServer = new RedisServer(port);
+		redisServer.start();
+		connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+		connectionFactory.afterPropertiesSet();
+		connectionFactory.start();
+		redisTemplate = new StringRedisTemplate(connectionFactory);
+	}
+
+	@AfterAll
+	static void stopRedis() throws Exception {
+		connectionFactory.destroy();
+		redisServer.stop();
+	}
+
+	@BeforeEach
+	void setUp() {
+		wipeRedis();
+		inventoryRepository.deleteAll();
+		Inventory inventory = new Inventory();
+		inventory.setProductId(PRODUCT_ID);
+		inventory.setWarehouseId(WAREHOUSE_ID);
+		inventory.setQuantity(STOCK);
+		inventory.setReservedQuantity(0);
+		inventoryRepository.save(inventory);
+	}
+
+	@Test
+	void serviceCrashLosesNoReservation() {
+		boot();
+		assertTrue(reserve(30));
+		assertTrue(reserve(5));
+		assertEquals(0, stored().getReservedQuantity());
+
+		// The process dies before the flusher runs; the next one finds the counters still in Redis
+		boot();
+
+		Inventory inventory = stored();
+		assertEquals(35, inventory.getReservedQuantity());
+		assertEquals(STOCK - 35, inventory.getAvailableQuantity());
+		assertFalse(reserve(STOCK - 35 + 1));
+		assertTrue(reserve(STOCK - 35));
+	}
+
+	@Test
+	void redisLossRebuildsCountersFromLastFlush() {
+		boot();
+		assertTrue(reserve(30));
+		assertEquals(1, writeBehind.flush());
+		assertTrue(reserve(5));
+
+		// Redis loses its data: everything since the last flush is the durability window
+		wipeRedis();
+		boot();
+
+		assertEquals(30, stored().getReservedQuantity());
+		assertTrue(reserve(STOCK - 30));
+		assertFalse(reserve(1));
+		writeBehind.flush();
+		assertEquals(STOCK, stored().getReservedQuantity());
+	}
+
+	@Test
+	void replayedFlushNeverMovesTheRowBack() {
+		boot();
+		assertTrue(reserve(10));
+		writeBehind.flush();
+		assertTrue(reserve(10));
+		writeBehind.flush();
+
+		// An older counter value arriving late, e.g. from another instance, is ignored
+		redisTemplate.opsForHash().put("stock:{hot}:" + PRODUCT_ID + ":" + WAREHOUSE_ID, "r", "10");
+		redisTemplate.opsForHash().put("stock:{hot}:" + PRODUCT_ID + ":" + WAREHOUSE_ID, "v", "1");
+		redisTemplate.opsForSet().add("stock:{hot}:dirty", PRODUCT_ID + ":" + WAREHOUSE_ID);
+		writeBehind.flush();
+
+		assertEquals(20, stored().getReservedQuantity());
+		assertEquals(2L, stored().getCounterVersion());
+	}
+
+	@Test
+	void rolledBackTransactionReturnsItsReservation() {
+		boot();
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			assertTrue(reserve(40));
+			status.setRollbackOnly();
+		});
+
+		assertTrue(reserve(STOCK));
+	}
+
+	private void boot() {
+		HotStockCounters counters = new HotStockCounters(redisTemplate);
+		hotStockService = new HotStockService(counters, inventoryRepository, Set.of(PRODUCT_ID));
+		writeBehind = new HotStockWriteBehind(counters, hotStockService, inventoryRepository,
+				new JdbcTemplate(dataSource), transactionManager);
+		ReflectionTestUtils.setField(writeBehind, "batchSize", 500);
+		writeBehind.recover();
+	}
+
+	private boolean reserve(int quantity) {
+		return hotStockService.reserve(WAREHOUSE_ID, Map.of(PRODUCT_ID, quantity));
+	}
+
+	private Inventory stored() {
+		return inventoryRepository.findByProductIdAndWarehouseId(PRODUCT_ID, WAREHOUSE_ID).orElseThrow();
+	}
+
+	private void wipeRedis() {
+		redisTemplate.execute((RedisCallback<Object>) connection -> {
+			connection.serverCommands().flushAll();
+			return null;
+		});
+	}
+}
@@ -0,0 +1,117 @@
+package com.stockmanagement.inventory_service.service;
+
+import com.stockmanagement.inventory_service.cache.InventoryCacheHelper;
+import com.stockmanagement.inventory_service.cache.WarehouseCache;
+import com.stockmanagement.inventory_service.client.ProductClient;
+import com.stockmanagement.inventory_service.dto.InventoryResponse;
+import com.stockmanagement.inventory_service.dto.ProductDto;
+import com.stockmanagement.inventory_service.entity.Inventory;
+import com.stockmanagement.inventory_service.entity.Warehouse;
+import com.stockmanagement.inventory_service.repository.InventoryRepository;
+import com.stockmanagement.inventory_service.repository.StockMovementRepository;
+import com.stockmanagement.inventory_service.repository.WarehouseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InventoryEnrichmentTest {
+
+	private static final int ROWS = 1_200;
+	private static final int PRODUCTS = 700;
+
+	private InventoryRepository inventoryRepository;
+	private WarehouseRepository warehouseRepository;
+	private ProductClient productClient;
+	private InventoryService inventoryService;
+
+	@BeforeEach
+	void setUp() {
+		inventoryRepository = mock(InventoryRepository.class);
+		warehouseRepository = mock(WarehouseRepository.class);
+		productClient = mock(ProductClient.class);
+		when(warehouseRepository.findAll()).thenReturn(List.of(warehouse(1L), warehouse(3L)));
+		WarehouseCache warehouseCache = new WarehouseCache(warehouseRepository, new SimpleMeterRegistry());
+		warehouseCache.preload();
+		inventoryService = new InventoryService(inventoryRepository, mock(StockMovementRepository.class),
+				warehouseCache, productClient, mock(InventoryCacheHelper.class), mock(HotStockService.class));
+
+		when(productClient.getProductsByIds(anyList())).thenAnswer(invocation -> {
+			List<Long> ids = invocation.getArgument(0);
+			return ids.stream().map(InventoryEnrichmentTest::product).collect(Collectors.toList());
+		});
+	}
+
+	@Test
+	void warehouseListingBatchesLookupsPerPageAndSkipsKnownIds() {
+		// Products repeat across the listing; every product after the first 700 rows is already known
+		List<Inventory> rows = new ArrayList<>();
+		for (int i = 0; i < ROWS; i++) {
+			rows.add(inventory(i, (long) (i % PRODUCTS) + 1, 1L));
+		}
+		when(inventoryRepository.findByWarehouseId(1L)).thenReturn(rows);
+
+		List<InventoryResponse> responses = inventoryService.getInventoryByWarehouse(1L);
+
+		assertEquals(ROWS, responses.size());
+		assertEquals("Product 1", responses.get(700).getProductName());
+		assertEquals("Warehouse 1", responses.get(ROWS - 1).getWarehouseName());
+
+		// Pages of 500: ids 1-500, then 501-700; the third page is fully memoized
+		verify(productClient, times(2)).getProductsByIds(anyList());
+		verify(productClient, never()).getProductById(anyLong());
+		// Warehouses were preloaded once and never queried per listing
+		verify(warehouseRepository, times(1)).findAll();
+		verify(warehouseRepository, never()).findAllById(any());
+		verify(warehouseRepository, never()).findById(anyLong());
+	}
+
+	@Test
+	void productsMissingFromTheBatchAreMarkedUnavailable() {
+		when(productClient.getProductsByIds(anyList())).thenReturn(List.of(product(1L)));
+		when(inventoryRepository.findByProductId(2L)).thenReturn(List.of(inventory(1, 2L, 1L), inventory(2, 2L, 3L)));
+
+		List<InventoryResponse> responses = inventoryService.getInventoryByProduct(2L);
+
+		assertEquals("Product Unavailable", responses.get(0).getProductName());
+		assertEquals("Warehouse 3", responses.get(1).getWarehouseName());
+		verify(productClient, times(1)).getProductsByIds(List.of(2L));
+	}
+
+	private static Inventory inventory(long id, Long productId, Long warehouseId) {
+		Inventory inventory = new Inventory();
+		inventory.setId(id);
+		inventory.setProductId(productId);
+		inventory.setWarehouseId(warehouseId);
+		inventory.setQuantity(10);
+		inventory.setReservedQuantity(0);
+		inventory.setAvailableQuantity(10);
+		return inventory;
+	}
+
+	private static ProductDto product(Long id) {
+		ProductDto product = new ProductDto();
+		product.setId(id);
+		product.setName("Product " + id);
+		return product;
+	}
+
+	private static Warehouse warehouse(Long id) {
+		Warehouse warehouse = new Warehouse();
+		warehouse.setId(id);
+		warehouse.setName("Warehouse " + id);
+		return warehouse;
+	}
+}
@@ -0,0 +1,295 @@
+package com.stockmanagement.inventory_service.service;
+
+import com.stockmanagement.inventory_service.cache.InventoryCacheHelper;
+import com.stockmanagement.inventory_service.cache.WarehouseCache;
+import com.stockmanagement.inventory_service.client.ProductClient;
+import com.stockmanagement.inventory_service.dto.StockReservationItem;
+import com.stockmanagement.inventory_service.dto.StockReservationRequest;
+import com.stockmanagement.inventory_service.entity.Inventory;
+import com.stockmanagement.inventory_service.repository.InventoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+// Hammers one SKU from many threads with more requests than stock; every mode must sell exactly what it reserved
+@DataJpaTest(properties = {
+		"spring.cloud.config.enabled=false",
+		"inventory.reservation.lock-attempts=10000",
+		"inventory.reservation.lock-retry-delay-ms=1",
+		"inventory.reservation.group-commit.max-wait-ms=1"
+})
+@Import({InventoryService.class, GroupCommitReservationService.class, InventoryReservationStressTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Slf4j
+class InventoryReservationStressTest {
+
+	private static final long PRODUCT_ID = 7L;
+	private static final long WAREHOUSE_ID = 1L;
+	private static final int STOCK = 500;
+	private static final int THREADS = 16;
+	private static final int REQUESTS_PER_THREAD = 50;
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private GroupCommitReservationService groupCommitReservationService;
+
+	@Autowired
+	private InventoryRepository inventoryRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@MockitoBean
+	private InventoryCacheHelper cacheHelper;
+
+	@MockitoBean
+	private ProductClient productClient;
+
+	@MockitoBean
+	private HotStockService hotStockService;
+
+	@MockitoBean
+	private WarehouseCache warehouseCache;
+
+	@BeforeEach
+	void setUp() {
+		inventoryRepository.deleteAll();
+		Inventory inventory = new Inventory();
+		inventory.setProductId(PRODUCT_ID);
+		inventory.setWarehouseId(WAREHOUSE_ID);
+		inventory.setQuantity(STOCK);
+		inventory.setReservedQuantity(0);
+		inventoryRepository.save(inventory);
+
+		// In-process stand-in for the Redis SETNX lock
+		Set<String> locks = ConcurrentHashMap.newKeySet();
+		when(cacheHelper.acquireLock(any(), any()))
+				.thenAnswer(invocation -> locks.add(invocation.getArgument(0) + ":" + invocation.getArgument(1)));
+		doAnswer(invocation -> locks.remove(invocation.getArgument(0) + ":" + invocation.getArgument(1)))
+				.when(cacheHelper).releaseLock(any(), any());
+	}
+
+	@Test
+	void conditionalUpdateNeverOversells() throws Exception {
+		run(ReservationMode.CONDITIONAL_UPDATE);
+	}
+
+	@Test
+	void redisLockNeverOversells() throws Exception {
+		run(ReservationMode.REDIS_LOCK);
+	}
+
+	@Test
+	void groupCommitNeverOversells() throws Exception {
+		run(ReservationMode.GROUP_COMMIT);
+
+		long batches = meterRegistry.get("inventory.reservation.batch.size").summary().count();
+		log.info("GROUP_COMMIT: {} batches, mean size {}", batches,
+				String.format("%.1f", meterRegistry.get("inventory.reservation.batch.size").summary().mean()));
+		assertTrue(batches < THREADS * REQUESTS_PER_THREAD);
+	}
+
+	@Test
+	void singleSkuOrderBatchesGroupCommitWithoutOverselling() throws Exception {
+		// The shape order-service sends to /reserve/batch: one SKU, here split over two lines
+		StockReservationRequest order = new StockReservationRequest(WAREHOUSE_ID,
+				List.of(new StockReservationItem(PRODUCT_ID, 1), new StockReservationItem(PRODUCT_ID, 1)));
+		useMode(ReservationMode.GROUP_COMMIT);
+		assertTrue(groupCommitReservationService.accepts(order));
+		assertFalse(groupCommitReservationService.accepts(new StockReservationRequest(WAREHOUSE_ID,
+				List.of(new StockReservationItem(PRODUCT_ID, 1), new StockReservationItem(PRODUCT_ID + 1, 1)))));
+
+		run(ReservationMode.GROUP_COMMIT, () -> groupCommitReservationService.reserve(order), 2);
+
+		assertTrue(meterRegistry.get("inventory.reservation.batch.size").summary().count() < THREADS * REQUESTS_PER_THREAD);
+	}
+
+	@Test
+	void groupCommitRejectsTheRestOfTheBatchOnceStockRunsOut() {
+		useMode(ReservationMode.GROUP_COMMIT);
+		inventoryService.reserveStock(PRODUCT_ID, WAREHOUSE_ID, STOCK - 3);
+		ReflectionTestUtils.setField(groupCommitReservationService, "maxWaitMs", 200L);
+		try {
+			CompletableFuture<Boolean> first = groupCommitReservationService.submit(PRODUCT_ID, WAREHOUSE_ID, 2);
+			CompletableFuture<Boolean> tooLarge = groupCommitReservationService.submit(PRODUCT_ID, WAREHOUSE_ID, 2);
+			CompletableFuture<Boolean> wouldFit = groupCommitReservationService.submit(PRODUCT_ID, WAREHOUSE_ID, 1);
+
+			assertTrue(first.join());
+			assertFalse(tooLarge.join());
+			assertFalse(wouldFit.join());
+		} finally {
+			ReflectionTestUtils.setField(groupCommitReservationService, "maxWaitMs", 1L);
+		}
+		assertEquals(STOCK - 1, inventoryRepository.findByProductIdAndWarehouseId(PRODUCT_ID, WAREHOUSE_ID)
+				.orElseThrow().getReservedQuantity());
+	}
+
+	@Test
+	void groupCommitDropsQueuesOnceTheyDrain() throws Exception {
+		useMode(ReservationMode.GROUP_COMMIT);
+		assertTrue(groupCommitReservationService.reserve(PRODUCT_ID, WAREHOUSE_ID, 1));
+
+		Map<?, ?> queues = (Map<?, ?>) ReflectionTestUtils.getField(groupCommitReservationService, "queues");
+		long deadline = System.currentTimeMillis() + 1_000;
+		while (!queues.isEmpty() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		assertTrue(queues.isEmpty());
+	}
+
+	@Test
+	void groupCommitNeverGrantsTimedOutReservations() {
+		GroupCommitReservationService service = standaloneGroupCommit(300L, 20L);
+		try {
+			CompletableFuture<Boolean> abandoned = service.submit(PRODUCT_ID, WAREHOUSE_ID, 5);
+
+			CompletionException error = assertThrows(CompletionException.class, abandoned::join);
+			assertInstanceOf(TimeoutException.class, error.getCause());
+			assertThrows(IllegalStateException.class, () -> service.reserve(PRODUCT_ID, WAREHOUSE_ID, 5));
+		} finally {
+			ReflectionTestUtils.setField(service, "timeoutMs", 5_000L);
+		}
+		// The next batch is flushed behind the abandoned ones, which are skipped
+		assertTrue(service.reserve(PRODUCT_ID, WAREHOUSE_ID, 1));
+		assertEquals(1, inventoryRepository.findByProductIdAndWarehouseId(PRODUCT_ID, WAREHOUSE_ID)
+				.orElseThrow().getReservedQuantity());
+	}
+
+	@Test
+	void groupCommitAnswersCallersAfterShutdown() throws Exception {
+		GroupCommitReservationService service = standaloneGroupCommit(1L, 5_000L);
+		service.shutdown();
+
+		CompletableFuture<Boolean> rejected = service.submit(PRODUCT_ID, WAREHOUSE_ID, 1);
+
+		CompletionException error = assertThrows(CompletionException.class, rejected::join);
+		assertInstanceOf(IllegalStateException.class, error.getCause());
+	}
+
+	@Test
+	void releaseNeverDropsReservedBelowZero() {
+		useMode(ReservationMode.CONDITIONAL_UPDATE);
+		assertTrue(inventoryService.reserveStock(PRODUCT_ID, WAREHOUSE_ID, 3));
+
+		inventoryService.releaseStock(PRODUCT_ID, WAREHOUSE_ID, 5);
+
+		Inventory inventory = inventoryRepository.findByProductIdAndWarehouseId(PRODUCT_ID, WAREHOUSE_ID).orElseThrow();
+		assertEquals(0, inventory.getReservedQuantity());
+		assertEquals(STOCK, inventory.getAvailableQuantity());
+	}
+
+	private void run(ReservationMode mode) throws Exception {
+		run(mode, this::reserve, 1);
+	}
+
+	private void run(ReservationMode mode, BooleanSupplier reserve, int unitsPerRequest) throws Exception {
+		useMode(mode);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Integer>> results = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			results.add(executor.submit(() -> {
+				start.await();
+				int reserved = 0;
+				for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+					if (reserve.getAsBoolean()) {
+						reserved++;
+					}
+				}
+				return reserved;
+			}));
+		}
+
+		long started = System.nanoTime();
+		start.countDown();
+		int succeeded = 0;
+		for (Future<Integer> result : results) {
+			succeeded += result.get(2, TimeUnit.MINUTES);
+		}
+		long elapsedNanos = System.nanoTime() - started;
+		executor.shutdown();
+
+		int requests = THREADS * REQUESTS_PER_THREAD;
+		log.info("{}: {} requests from {} threads in {} ms ({} req/s), {} reserved",
+				mode, requests, THREADS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+				Math.round(requests / (elapsedNanos / 1e9)), succeeded);
+
+		Inventory inventory = inventoryRepository.findByProductIdAndWarehouseId(PRODUCT_ID, WAREHOUSE_ID).orElseThrow();
+		assertEquals(succeeded * unitsPerRequest, inventory.getReservedQuantity());
+		assertEquals(STOCK - succeeded * unitsPerRequest, inventory.getAvailableQuantity());
+		assertTrue(inventory.getReservedQuantity() <= STOCK);
+		assertEquals(STOCK, succeeded * unitsPerRequest);
+	}
+
+	private boolean reserve() {
+		return groupCommitReservationService.isActive()
+				? groupCommitReservationService.reserve(PRODUCT_ID, WAREHOUSE_ID, 1)
+				: inventoryService.reserveStock(PRODUCT_ID, WAREHOUSE_ID, 1);
+	}
+
+	private GroupCommitReservationService standaloneGroupCommit(long maxWaitMs, long timeoutMs) {
+		GroupCommitReservationService service = new GroupCommitReservationService(inventoryRepository, cacheHelper,
+				transactionManager, new SimpleMeterRegistry(), 1);
+		ReflectionTestUtils.setField(service, "reservationMode", ReservationMode.GROUP_COMMIT);
+		ReflectionTestUtils.setField(service, "maxWaitMs", maxWaitMs);
+		ReflectionTestUtils.setField(service, "maxBatchSize", 200);
+		ReflectionTestUtils.setField(service, "timeoutMs", timeoutMs);
+		return service;
+	}
+
+	private void useMode(ReservationMode mode) {
+		InventoryService target = AopTestUtils.getTargetObject(inventoryService);
+		ReflectionTestUtils.setField(target, "reservationMode", mode);
+		ReflectionTestUtils.setField(groupCommitReservationService, "reservationMode", mode);
+	}
+
+	@TestConfiguration
+	static class Metrics {
+
+		@Bean
+		MeterRegistry meterRegistry() {
+			return new SimpleMeterRegistry();
+		}
+	}
+}
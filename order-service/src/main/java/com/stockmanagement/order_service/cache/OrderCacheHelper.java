@@ -0,0 +1,134 @@
+package com.stockmanagement.order_service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stockmanagement.order_service.dto.OrderResponse;
+import com.stockmanagement.order_service.metrics.OrderMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+@Component
+@Slf4j
+public class OrderCacheHelper implements MessageListener {
+    
+    public static final String INVALIDATION_CHANNEL = "orders:invalidation";
+    private static final String CACHE_PREFIX = "orders:";
+    private static final String NUMBER_PREFIX = "orders:number:";
+    private static final String SEPARATOR = "|";
+    
+    private final RedisTemplate<String, OrderResponse> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final OrderMetrics orderMetrics;
+    private final Cache<String, OrderResponse> localCache;
+    private final Duration redisTtl;
+    private final String instanceId = UUID.randomUUID().toString();
+    
+    public OrderCacheHelper(RedisTemplate<String, OrderResponse> redisTemplate,
+                            StringRedisTemplate stringRedisTemplate,
+                            OrderMetrics orderMetrics,
+                            @Value("${order.cache.local.max-size:10000}") long localMaxSize,
+                            @Value("${order.cache.local.ttl-seconds:30}") long localTtlSeconds,
+                            @Value("${order.cache.redis.ttl-minutes:10}") long redisTtlMinutes) {
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.orderMetrics = orderMetrics;
+        this.redisTtl = Duration.ofMinutes(redisTtlMinutes);
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+                .recordStats()
+                .build();
+        orderMetrics.monitorLocalCache(localCache);
+    }
+    
+    public OrderResponse getOrder(Long id) {
+        return get(CACHE_PREFIX + id);
+    }
+    
+    public OrderResponse getOrderByNumber(String orderNumber) {
+        return get(NUMBER_PREFIX + orderNumber);
+    }
+    
+    public void cacheOrder(OrderResponse order) {
+        String idKey = CACHE_PREFIX + order.getId();
+        String numberKey = NUMBER_PREFIX + order.getOrderNumber();
+        localCache.put(idKey, order);
+        localCache.put(numberKey, order);
+        try {
+            redisTemplate.opsForValue().set(idKey, order, redisTtl);
+            redisTemplate.opsForValue().set(numberKey, order, redisTtl);
+            log.debug("Cached order: {}", order.getId());
+        } catch (Exception e) {
+            log.error("Error caching order: {}", order.getId(), e);
+        }
+    }
+    
+    // Inside a transaction the eviction waits for the commit, so readers cannot re-cache the old state in between
+    public void evictOrder(Long id, String orderNumber) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(id, orderNumber);
+                }
+            });
+        } else {
+            evictNow(id, orderNumber);
+        }
+    }
+    
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\" + SEPARATOR, 3);
+        if (parts.length < 3 || instanceId.equals(parts[0])) {
+            return;
+        }
+        localCache.invalidate(CACHE_PREFIX + parts[1]);
+        localCache.invalidate(NUMBER_PREFIX + parts[2]);
+        log.debug("Evicted order {} on invalidation from another instance", parts[1]);
+    }
+    
+    private OrderResponse get(String key) {
+        OrderResponse order = localCache.getIfPresent(key);
+        if (order != null) {
+            return order;
+        }
+        try {
+            order = redisTemplate.opsForValue().get(key);
+        } catch (Exception e) {
+            log.error("Error getting order from cache: {}", key, e);
+            return null;
+        }
+        if (order == null) {
+            orderMetrics.incrementRedisCacheMiss();
+            return null;
+        }
+        orderMetrics.incrementRedisCacheHit();
+        localCache.put(key, order);
+        return order;
+    }
+    
+    private void evictNow(Long id, String orderNumber) {
+        localCache.invalidate(CACHE_PREFIX + id);
+        localCache.invalidate(NUMBER_PREFIX + orderNumber);
+        try {
+            redisTemplate.delete(CACHE_PREFIX + id);
+            redisTemplate.delete(NUMBER_PREFIX + orderNumber);
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL,
+                    instanceId + SEPARATOR + id + SEPARATOR + orderNumber);
+            log.debug("Evicted order: {}", id);
+        } catch (Exception e) {
+            log.error("Error evicting order: {}", id, e);
+        }
+    }
+}
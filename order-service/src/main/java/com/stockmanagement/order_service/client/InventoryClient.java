@@ -5,9 +5,13 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import com.stockmanagement.order_service.dto.InventoryDto;
+import com.stockmanagement.order_service.dto.StockHoldRequest;
+import com.stockmanagement.order_service.dto.StockReservationRequest;
+import java.util.List;
 
 @FeignClient(name = "inventory-service", fallback = InventoryClientFallback.class)
 public interface InventoryClient {
@@ -24,4 +28,25 @@ public interface InventoryClient {
     void releaseStock(@RequestParam Long productId, 
                      @RequestParam Long warehouseId, 
                      @RequestParam Integer quantity);
-}
\ No newline at end of file
+    
+    @PostMapping("/inventory/reserve/batch")
+    Boolean reserveStockBatch(@RequestBody StockReservationRequest request);
+    
+    @PostMapping("/inventory/release/batch")
+    void releaseStockBatch(@RequestBody StockReservationRequest request);
+    
+    @PostMapping("/inventory/reserve/bulk")
+    List<Boolean> reserveStockBulk(@RequestBody List<StockReservationRequest> requests);
+    
+    @PostMapping("/inventory/release/bulk")
+    void releaseStockBulk(@RequestBody List<StockReservationRequest> requests);
+    
+    @PostMapping("/inventory/holds")
+    Boolean placeHold(@RequestBody StockHoldRequest request);
+    
+    @PostMapping("/inventory/holds/{holdId}/confirm")
+    Boolean confirmHold(@PathVariable Long holdId);
+    
+    @PostMapping("/inventory/holds/{holdId}/release")
+    void releaseHold(@PathVariable Long holdId);
+}
@@ -3,6 +3,10 @@ package com.stockmanagement.order_service.client;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import com.stockmanagement.order_service.dto.InventoryDto;
+import com.stockmanagement.order_service.dto.StockHoldRequest;
+import com.stockmanagement.order_service.dto.StockReservationRequest;
+import java.util.Collections;
+import java.util.List;
 
 @Component
 @Slf4j
@@ -24,4 +28,43 @@ public class InventoryClientFallback implements InventoryClient {
     public void releaseStock(Long productId, Long warehouseId, Integer quantity) {
         log.error("Fallback: Unable to release stock for product: {}", productId);
     }
-}
\ No newline at end of file
+    
+    @Override
+    public Boolean reserveStockBatch(StockReservationRequest request) {
+        log.error("Fallback: Unable to reserve stock in batch for warehouse: {}", request.getWarehouseId());
+        return false;
+    }
+    
+    @Override
+    public void releaseStockBatch(StockReservationRequest request) {
+        log.error("Fallback: Unable to release stock in batch for warehouse: {}", request.getWarehouseId());
+    }
+    
+    @Override
+    public List<Boolean> reserveStockBulk(List<StockReservationRequest> requests) {
+        log.error("Fallback: Unable to reserve stock in bulk for {} orders", requests.size());
+        return Collections.nCopies(requests.size(), false);
+    }
+    
+    @Override
+    public void releaseStockBulk(List<StockReservationRequest> requests) {
+        log.error("Fallback: Unable to release stock in bulk for {} orders", requests.size());
+    }
+    
+    @Override
+    public Boolean placeHold(StockHoldRequest request) {
+        log.error("Fallback: Unable to place stock hold {} for warehouse: {}", request.getHoldId(), request.getWarehouseId());
+        return false;
+    }
+    
+    @Override
+    public Boolean confirmHold(Long holdId) {
+        log.error("Fallback: Unable to confirm stock hold: {}", holdId);
+        return false;
+    }
+    
+    @Override
+    public void releaseHold(Long holdId) {
+        log.error("Fallback: Unable to release stock hold: {}", holdId);
+    }
+}
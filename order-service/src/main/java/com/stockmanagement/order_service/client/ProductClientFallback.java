@@ -6,6 +6,8 @@ import org.springframework.stereotype.Component;
 import com.stockmanagement.order_service.dto.ProductDto;
 
 import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
 
 @Component
 @Slf4j
@@ -16,4 +18,10 @@ public class ProductClientFallback implements ProductClient {
         log.error("Fallback: Unable to fetch product with id: {}", id);
         return new ProductDto(id, "Product Unavailable", "N/A", BigDecimal.ZERO);
     }
+    
+    @Override
+    public List<ProductDto> getProductsByIds(List<Long> ids) {
+        log.error("Fallback: Unable to fetch products with ids: {}", ids);
+        return Collections.emptyList();
+    }
 }
\ No newline at end of file
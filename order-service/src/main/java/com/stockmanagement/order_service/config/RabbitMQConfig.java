@@ -21,6 +21,11 @@ public class RabbitMQConfig {
     public static final String ORDER_CANCELLED_ROUTING_KEY = "order.cancelled";
     public static final String ORDER_CONFIRMED_ROUTING_KEY = "order.confirmed";
     
+    public static final String INVENTORY_EXCHANGE = "inventory.exchange";
+    public static final String ORDER_SAGA_REPLY_QUEUE = "order.saga.reply.queue";
+    public static final String SAGA_STOCK_COMMAND_ROUTING_KEY = "saga.stock.command";
+    public static final String SAGA_STOCK_REPLY_ROUTING_KEY = "saga.stock.reply";
+    
     @Bean
     public TopicExchange orderExchange() {
         return new TopicExchange(ORDER_EXCHANGE);
@@ -65,6 +70,24 @@ public class RabbitMQConfig {
                 .with(ORDER_CONFIRMED_ROUTING_KEY);
     }
     
+    @Bean
+    public TopicExchange inventoryExchange() {
+        return new TopicExchange(INVENTORY_EXCHANGE);
+    }
+    
+    @Bean
+    public Queue orderSagaReplyQueue() {
+        return new Queue(ORDER_SAGA_REPLY_QUEUE, true);
+    }
+    
+    @Bean
+    public Binding orderSagaReplyBinding() {
+        return BindingBuilder
+                .bind(orderSagaReplyQueue())
+                .to(inventoryExchange())
+                .with(SAGA_STOCK_REPLY_ROUTING_KEY);
+    }
+    
     @Bean
     public MessageConverter messageConverter() {
         return new Jackson2JsonMessageConverter();
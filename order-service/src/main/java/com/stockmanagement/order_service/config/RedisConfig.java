@@ -0,0 +1,47 @@
+package com.stockmanagement.order_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.stockmanagement.order_service.cache.OrderCacheHelper;
+import com.stockmanagement.order_service.dto.OrderResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+@Configuration
+public class RedisConfig {
+    
+    // Typed to the one value the cache stores; an untyped serializer reads values back as plain maps
+    @Bean
+    public RedisTemplate<String, OrderResponse> redisTemplate(RedisConnectionFactory connectionFactory) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        Jackson2JsonRedisSerializer<OrderResponse> serializer = new Jackson2JsonRedisSerializer<>(objectMapper, OrderResponse.class);
+        
+        RedisTemplate<String, OrderResponse> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(serializer);
+        template.setHashValueSerializer(serializer);
+        return template;
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "order.cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer orderCacheListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                     OrderCacheHelper orderCacheHelper) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(orderCacheHelper, new ChannelTopic(OrderCacheHelper.INVALIDATION_CHANNEL));
+        return container;
+    }
+}
@@ -1,29 +1,80 @@
 package com.stockmanagement.order_service.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import java.io.IOException;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
+import com.stockmanagement.order_service.service.AsyncOrderService;
+import com.stockmanagement.order_service.service.IdempotencyService;
+import com.stockmanagement.order_service.service.OrderImportService;
 import com.stockmanagement.order_service.service.OrderService;
+import com.stockmanagement.order_service.service.QuoteService;
+import com.stockmanagement.order_service.service.SalesRollupService;
+import com.stockmanagement.order_service.dto.OrderPageResponse;
 import com.stockmanagement.order_service.dto.OrderRequest;
 import com.stockmanagement.order_service.dto.OrderResponse;
+import com.stockmanagement.order_service.dto.OrderSummaryResponse;
+import com.stockmanagement.order_service.dto.QuoteResponse;
+import com.stockmanagement.order_service.dto.SalesRollupResponse;
 import com.stockmanagement.order_service.entity.OrderStatus;
+import com.stockmanagement.order_service.entity.RollupGrain;
 
 @RestController
 @RequestMapping("/orders")
 @RequiredArgsConstructor
 public class OrderController {
     
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+    private final AsyncOrderService asyncOrderService;
+    private final OrderImportService orderImportService;
+    private final SalesRollupService salesRollupService;
+    private final QuoteService quoteService;
     
     @PostMapping
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody OrderRequest request) {
-        OrderResponse response = orderService.createOrder(request);
+    public ResponseEntity<OrderResponse> createOrder(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody OrderRequest request) {
+        OrderResponse response = idempotencyKey != null
+                ? idempotencyService.execute(idempotencyKey, request, OrderResponse.class,
+                        () -> orderService.createOrder(request))
+                : orderService.createOrder(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+    
+    @PostMapping("/quotes")
+    public ResponseEntity<QuoteResponse> createQuote(@Valid @RequestBody OrderRequest request) {
+        QuoteResponse response = quoteService.createQuote(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
+    // Returns as soon as the order is persisted as PENDING; poll the Location URL for the outcome
+    @PostMapping("/async")
+    public ResponseEntity<OrderResponse> createOrderAsync(@Valid @RequestBody OrderRequest request) {
+        OrderResponse response = asyncOrderService.submitOrder(request);
+        URI statusUri = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/orders/{id}")
+                .buildAndExpand(response.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(statusUri).body(response);
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<OrderResponse> getOrderById(@PathVariable Long id) {
         OrderResponse response = orderService.getOrderById(id);
@@ -42,12 +93,97 @@ public class OrderController {
         return ResponseEntity.ok(responses);
     }
     
+    @GetMapping("/customer/{customerId}/summaries")
+    public ResponseEntity<OrderPageResponse<OrderSummaryResponse>> getOrderSummariesByCustomer(
+            @PathVariable Long customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        OrderPageResponse<OrderSummaryResponse> response =
+                orderService.getOrderSummariesByCustomer(customerId, cursor, size);
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/status/{status}")
+    public ResponseEntity<OrderPageResponse<OrderSummaryResponse>> getOrdersByStatus(
+            @PathVariable OrderStatus status,
+            @RequestParam(required = false) Long warehouseId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        OrderPageResponse<OrderSummaryResponse> response =
+                orderService.getOrdersByStatus(status, warehouseId, from, to, cursor, size);
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/status/{status}/count")
+    public ResponseEntity<Long> countOrdersByStatus(
+            @PathVariable OrderStatus status,
+            @RequestParam(required = false) Long warehouseId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        long count = orderService.countOrdersByStatus(status, warehouseId, from, to);
+        return ResponseEntity.ok(count);
+    }
+    
+    @GetMapping("/product/{productId}")
+    public ResponseEntity<OrderPageResponse<OrderSummaryResponse>> getOrdersByProduct(
+            @PathVariable Long productId,
+            @RequestParam(required = false) Set<OrderStatus> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        OrderPageResponse<OrderSummaryResponse> response =
+                orderService.getOrdersByProduct(productId, status, from, to, cursor, size);
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/reports/sales")
+    public ResponseEntity<List<SalesRollupResponse>> getSalesReport(
+            @RequestParam(defaultValue = "DAILY") RollupGrain grain,
+            @RequestParam(required = false) Long warehouseId,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        List<SalesRollupResponse> responses = salesRollupService.getSalesReport(grain, warehouseId, productId, from, to);
+        return ResponseEntity.ok(responses);
+    }
+    
     @GetMapping("/all")
     public ResponseEntity<List<OrderResponse>> getAllOrders() {
         List<OrderResponse> responses = orderService.getAllOrders();
         return ResponseEntity.ok(responses);
     }
     
+    @GetMapping("/page")
+    public ResponseEntity<OrderPageResponse<OrderResponse>> getOrdersPage(
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        OrderPageResponse<OrderResponse> response = orderService.getOrdersPage(customerId, cursor, size);
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam(required = false) Long customerId) {
+        StreamingResponseBody body = outputStream -> orderService.exportOrders(customerId, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
+    // Results stream back as one NDJSON line per imported order, in file order
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE})
+    public void importOrders(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        orderImportService.importOrders(request.getInputStream(),
+                MediaType.valueOf(TEXT_CSV_VALUE).includes(contentType),
+                response.getOutputStream());
+    }
+    
     @PutMapping("/{id}/status")
     public ResponseEntity<OrderResponse> updateOrderStatus(
             @PathVariable Long id,
@@ -0,0 +1,17 @@
+package com.stockmanagement.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderImportResult {
+    private Integer row;
+    private String reference;
+    private OrderImportStatus status;
+    private Long orderId;
+    private String orderNumber;
+    private String message;
+}
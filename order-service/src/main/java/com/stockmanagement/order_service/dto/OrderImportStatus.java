@@ -0,0 +1,6 @@
+package com.stockmanagement.order_service.dto;
+
+public enum OrderImportStatus {
+    CREATED,
+    REJECTED
+}
@@ -0,0 +1,15 @@
+package com.stockmanagement.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPageResponse<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
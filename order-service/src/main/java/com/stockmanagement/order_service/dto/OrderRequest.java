@@ -24,4 +24,7 @@ public class OrderRequest {
     private List<OrderItemRequest> items;
     
     private String notes;
+    
+    // Signed quote from POST /orders/quotes; when still valid the order skips re-validation
+    private String quoteId;
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.stockmanagement.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import com.stockmanagement.order_service.entity.OrderStatus;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSummaryResponse {
+    private Long id;
+    private String orderNumber;
+    private Long customerId;
+    private Long warehouseId;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+    private Integer itemCount;
+    private LocalDateTime createdAt;
+}
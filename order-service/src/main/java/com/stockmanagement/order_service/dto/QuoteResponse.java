@@ -0,0 +1,20 @@
+package com.stockmanagement.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteResponse {
+    private String quoteId;
+    private Instant expiresAt;
+    private Long customerId;
+    private Long warehouseId;
+    private List<OrderItemResponse> items;
+    private BigDecimal totalAmount;
+}
@@ -0,0 +1,21 @@
+package com.stockmanagement.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import com.stockmanagement.order_service.entity.RollupGrain;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollupResponse {
+    private RollupGrain grain;
+    private LocalDateTime bucketStart;
+    private Long warehouseId;
+    private Long productId;
+    private Long orderCount;
+    private Long units;
+    private BigDecimal revenue;
+}
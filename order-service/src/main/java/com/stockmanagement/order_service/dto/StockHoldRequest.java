@@ -0,0 +1,16 @@
+package com.stockmanagement.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockHoldRequest {
+    private Long holdId;
+    private Long warehouseId;
+    private List<StockReservationItem> items;
+    private long holdSeconds;
+}
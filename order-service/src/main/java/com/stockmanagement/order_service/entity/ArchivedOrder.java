@@ -0,0 +1,34 @@
+package com.stockmanagement.order_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "order_archive_index")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedOrder {
+    
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+    
+    @Column(name = "order_number", unique = true, nullable = false)
+    private String orderNumber;
+    
+    @Column(name = "archive_file", nullable = false)
+    private String archiveFile;
+    
+    @Column(name = "line_number", nullable = false)
+    private Integer lineNumber;
+    
+    @Column(name = "order_created_at", nullable = false)
+    private LocalDateTime orderCreatedAt;
+    
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,39 @@
+package com.stockmanagement.order_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "order_idempotency_keys")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+    
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+    
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+    
+    // The request currently allowed to execute; it renews updated_at while it runs
+    @Column(name = "owner_token", length = 36)
+    private String ownerToken;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private IdempotencyStatus status;
+    
+    @Column(name = "response_body", columnDefinition = "text")
+    private String responseBody;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
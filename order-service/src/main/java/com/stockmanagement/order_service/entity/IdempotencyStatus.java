@@ -0,0 +1,6 @@
+package com.stockmanagement.order_service.entity;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
@@ -4,23 +4,31 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_order_number", columnList = "order_number"),
+        @Index(name = "idx_orders_status_created", columnList = "status, created_at, id"),
+        @Index(name = "idx_orders_status_warehouse_created", columnList = "status, warehouse_id, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
     
-    @Column(name = "order_number", unique = true, nullable = false)
+    // Not a unique constraint: a partitioned orders table cannot enforce one without created_at, so uniqueness comes
+    // from the Snowflake ids the numbers are built from (see db/orders-partitioning.sql)
+    @Column(name = "order_number", nullable = false)
     private String orderNumber;
     
     @Column(name = "customer_id", nullable = false)
@@ -40,6 +48,7 @@ public class Order {
     private String notes;
     
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     private List<OrderItem> items = new ArrayList<>();
     
     @Column(name = "created_at", nullable = false, updatable = false)
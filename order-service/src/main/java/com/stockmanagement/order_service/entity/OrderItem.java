@@ -5,16 +5,18 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = @Index(name = "idx_order_items_product_order", columnList = "product_id, order_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class OrderItem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -38,4 +40,15 @@ public class OrderItem {
     
     @Column(name = "total_price", nullable = false)
     private BigDecimal totalPrice;
+    
+    // Copy of the order's created_at: order_items is partitioned on it alongside orders, so archived months are dropped
+    // from both tables together
+    @Column(name = "order_created_at", nullable = false, updatable = false)
+    private LocalDateTime orderCreatedAt;
+    
+    // Items are cascaded after their order is persisted, so the order's timestamp is already set
+    @PrePersist
+    protected void onCreate() {
+        orderCreatedAt = order.getCreatedAt();
+    }
 }
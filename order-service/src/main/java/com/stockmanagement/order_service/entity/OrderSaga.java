@@ -0,0 +1,49 @@
+package com.stockmanagement.order_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "order_sagas", indexes = @Index(name = "idx_order_sagas_state_deadline", columnList = "state, deadline"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSaga {
+    
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SagaState state;
+    
+    @Column(nullable = false)
+    private LocalDateTime deadline;
+    
+    @Column(name = "failure_reason", length = 500)
+    private String failureReason;
+    
+    @Version
+    private Long version;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
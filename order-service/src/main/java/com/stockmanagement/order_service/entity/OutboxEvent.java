@@ -0,0 +1,42 @@
+package com.stockmanagement.order_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "order_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "aggregate_id")
+    private Long aggregateId;
+    
+    @Column(nullable = false)
+    private String exchange;
+    
+    @Column(name = "routing_key", nullable = false)
+    private String routingKey;
+    
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+    
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,24 @@
+package com.stockmanagement.order_service.entity;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum RollupGrain {
+    HOURLY(ChronoUnit.HOURS),
+    DAILY(ChronoUnit.DAYS);
+    
+    private final ChronoUnit unit;
+    
+    RollupGrain(ChronoUnit unit) {
+        this.unit = unit;
+    }
+    
+    public LocalDateTime bucketStart(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+    
+    public Duration bucketLength() {
+        return unit.getDuration();
+    }
+}
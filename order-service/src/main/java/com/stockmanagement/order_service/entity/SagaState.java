@@ -0,0 +1,8 @@
+package com.stockmanagement.order_service.entity;
+
+public enum SagaState {
+    RESERVING,
+    CONFIRMING,
+    COMPLETED,
+    COMPENSATED
+}
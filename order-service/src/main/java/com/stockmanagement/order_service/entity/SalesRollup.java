@@ -0,0 +1,30 @@
+package com.stockmanagement.order_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "order_sales_rollups", indexes = @Index(name = "idx_sales_rollups_lookup",
+        columnList = "grain, warehouse_id, product_id, bucket_start"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollup {
+    
+    public static final long ALL_PRODUCTS = 0L;
+    
+    @EmbeddedId
+    private SalesRollupId id;
+    
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+    
+    @Column(nullable = false)
+    private Long units;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+}
@@ -0,0 +1,32 @@
+package com.stockmanagement.order_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesRollupId implements Serializable {
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RollupGrain grain;
+    
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+    
+    @Column(name = "warehouse_id", nullable = false)
+    private Long warehouseId;
+    
+    // 0 holds the warehouse-level totals
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+}
@@ -0,0 +1,21 @@
+package com.stockmanagement.order_service.event;
+
+import com.stockmanagement.order_service.dto.StockReservationItem;
+import java.io.Serializable;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockCommand implements Serializable {
+
+    private Long orderId;
+    private StockCommandType type;
+    private Long warehouseId;
+    private List<StockReservationItem> items;
+    private Long holdSeconds;
+
+}
@@ -0,0 +1,18 @@
+package com.stockmanagement.order_service.event;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockCommandReply implements Serializable {
+
+    private Long orderId;
+    private StockCommandType type;
+    private boolean success;
+    private String message;
+
+}
@@ -0,0 +1,7 @@
+package com.stockmanagement.order_service.event;
+
+public enum StockCommandType {
+    RESERVE,
+    CONFIRM,
+    RELEASE
+}
@@ -0,0 +1,7 @@
+package com.stockmanagement.order_service.exception;
+
+public class DuplicateRequestInProgressException extends RuntimeException {
+    public DuplicateRequestInProgressException(String message) {
+        super(message);
+    }
+}
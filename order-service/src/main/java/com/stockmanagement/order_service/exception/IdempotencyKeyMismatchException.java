@@ -0,0 +1,7 @@
+package com.stockmanagement.order_service.exception;
+
+public class IdempotencyKeyMismatchException extends RuntimeException {
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
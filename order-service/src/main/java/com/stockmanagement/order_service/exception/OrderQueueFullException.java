@@ -0,0 +1,7 @@
+package com.stockmanagement.order_service.exception;
+
+public class OrderQueueFullException extends RuntimeException {
+    public OrderQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.stockmanagement.order_service.exception;
+
+public class OrderValidationTimeoutException extends RuntimeException {
+    public OrderValidationTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,23 @@
+package com.stockmanagement.order_service.listener;
+
+import com.stockmanagement.order_service.config.RabbitMQConfig;
+import com.stockmanagement.order_service.event.StockCommandReply;
+import com.stockmanagement.order_service.service.OrderSagaService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockCommandReplyListener {
+    
+    private final OrderSagaService orderSagaService;
+    
+    @RabbitListener(queues = RabbitMQConfig.ORDER_SAGA_REPLY_QUEUE)
+    public void handleStockCommandReply(StockCommandReply reply) {
+        log.info("Received {} reply for order: {} (success={})", reply.getType(), reply.getOrderId(), reply.isSuccess());
+        orderSagaService.handleReply(reply);
+    }
+}
@@ -0,0 +1,38 @@
+package com.stockmanagement.order_service.metrics;
+
+import com.stockmanagement.order_service.exception.InsufficientStockException;
+import com.stockmanagement.order_service.exception.OrderValidationTimeoutException;
+import com.stockmanagement.order_service.exception.ProductNotFoundException;
+import feign.FeignException;
+import org.springframework.dao.DataAccessException;
+
+public enum OrderFailureReason {
+    INVALID_REQUEST,
+    INSUFFICIENT_STOCK,
+    PRODUCT_NOT_FOUND,
+    VALIDATION_TIMEOUT,
+    REMOTE_CALL_ERROR,
+    PERSISTENCE_ERROR,
+    RELEASE_FAILED,
+    SAGA_TIMEOUT,
+    UNKNOWN;
+    
+    public static OrderFailureReason from(Throwable error) {
+        if (error instanceof InsufficientStockException) {
+            return INSUFFICIENT_STOCK;
+        }
+        if (error instanceof ProductNotFoundException) {
+            return PRODUCT_NOT_FOUND;
+        }
+        if (error instanceof OrderValidationTimeoutException) {
+            return VALIDATION_TIMEOUT;
+        }
+        if (error instanceof FeignException) {
+            return REMOTE_CALL_ERROR;
+        }
+        if (error instanceof DataAccessException) {
+            return PERSISTENCE_ERROR;
+        }
+        return UNKNOWN;
+    }
+}
@@ -3,19 +3,43 @@ package com.stockmanagement.order_service.metrics;
 
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import com.github.benmanes.caffeine.cache.Cache;
 import org.springframework.stereotype.Component;
+import com.stockmanagement.order_service.service.ValidationMode;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 public class OrderMetrics {
     
+    private static final String[] ITEM_BUCKETS = {"1", "2-5", "6-20", "21-100", "100+"};
+    
     private final Counter orderCreatedCounter;
     private final Counter orderCancelledCounter;
-    private final Counter orderFailedCounter;
-    private final Timer orderProcessingTimer;
+    private final Map<String, Timer> processingTimers = new HashMap<>();
+    private final Map<OrderStage, Map<String, Timer>> stageTimers = new EnumMap<>(OrderStage.class);
+    private final Map<ValidationMode, Timer> validationTimers = new EnumMap<>(ValidationMode.class);
+    private final Timer outboxPublishDelayTimer;
+    private final AtomicLong outboxBacklog = new AtomicLong();
+    private final AtomicLong outboxLagMillis = new AtomicLong();
+    private final Counter redisCacheHitCounter;
+    private final Counter redisCacheMissCounter;
+    private final Timer asyncQueueWaitTimer;
+    private final Counter asyncRejectedCounter;
+    private final MeterRegistry registry;
     
     public OrderMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        
         this.orderCreatedCounter = Counter.builder("order.created")
                 .description("Total orders created")
                 .register(registry);
@@ -24,13 +48,98 @@ public class OrderMetrics {
                 .description("Total orders cancelled")
                 .register(registry);
         
-        this.orderFailedCounter = Counter.builder("order.failed")
-                .description("Total orders failed")
+        for (String bucket : ITEM_BUCKETS) {
+            processingTimers.put(bucket, Timer.builder("order.processing.time")
+                    .description("Order processing duration")
+                    .tag("items", bucket)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        
+        for (OrderStage stage : OrderStage.values()) {
+            Map<String, Timer> timers = new HashMap<>();
+            for (String bucket : ITEM_BUCKETS) {
+                timers.put(bucket, Timer.builder("order.stage.time")
+                        .description("Duration of a single stage of the order pipeline")
+                        .tag("stage", stage.name().toLowerCase())
+                        .tag("items", bucket)
+                        .publishPercentileHistogram()
+                        .register(registry));
+            }
+            stageTimers.put(stage, timers);
+        }
+        
+        for (ValidationMode mode : ValidationMode.values()) {
+            validationTimers.put(mode, Timer.builder("order.validation.time")
+                    .description("Product and inventory validation duration per order")
+                    .tag("mode", mode.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        
+        this.outboxPublishDelayTimer = Timer.builder("order.outbox.publish.delay")
+                .description("Time between an event being written to the outbox and being confirmed by the broker")
+                .publishPercentileHistogram()
+                .register(registry);
+        
+        Gauge.builder("order.outbox.backlog", outboxBacklog, AtomicLong::get)
+                .description("Events waiting in the outbox")
+                .register(registry);
+        
+        Gauge.builder("order.outbox.lag", outboxLagMillis, AtomicLong::get)
+                .description("Age of the oldest event waiting in the outbox")
+                .baseUnit("milliseconds")
+                .register(registry);
+        
+        this.redisCacheHitCounter = Counter.builder("order.cache.redis.requests")
+                .description("Order lookups that missed the local cache and were checked in Redis")
+                .tag("result", "hit")
+                .register(registry);
+        
+        this.redisCacheMissCounter = Counter.builder("order.cache.redis.requests")
+                .description("Order lookups that missed the local cache and were checked in Redis")
+                .tag("result", "miss")
                 .register(registry);
         
-        this.orderProcessingTimer = Timer.builder("order.processing.time")
-                .description("Order processing duration")
+        this.asyncQueueWaitTimer = Timer.builder("order.async.queue.wait")
+                .description("Time an accepted order waits in the queue before a worker picks it up")
+                .publishPercentileHistogram()
                 .register(registry);
+        
+        this.asyncRejectedCounter = Counter.builder("order.async.rejected")
+                .description("Async orders rejected because the work queue was full")
+                .register(registry);
+    }
+    
+    public void monitorAsyncQueue(ThreadPoolExecutor executor) {
+        Gauge.builder("order.async.queue.depth", executor, e -> e.getQueue().size())
+                .description("Accepted orders waiting for a worker")
+                .register(registry);
+        
+        Gauge.builder("order.async.workers.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Workers currently processing an accepted order")
+                .register(registry);
+    }
+    
+    public void recordAsyncQueueWait(Duration wait) {
+        asyncQueueWaitTimer.record(wait);
+    }
+    
+    public void incrementAsyncRejected() {
+        asyncRejectedCounter.increment();
+    }
+    
+    // Exposes cache.gets (hit/miss), cache.evictions and cache.size for the in-process order cache
+    public void monitorLocalCache(Cache<?, ?> cache) {
+        CaffeineCacheMetrics.monitor(registry, cache, "orders.local");
+    }
+    
+    public void incrementRedisCacheHit() {
+        redisCacheHitCounter.increment();
+    }
+    
+    public void incrementRedisCacheMiss() {
+        redisCacheMissCounter.increment();
     }
     
     public void incrementOrderCreated() {
@@ -41,15 +150,62 @@ public class OrderMetrics {
         orderCancelledCounter.increment();
     }
     
-    public void incrementOrderFailed() {
-        orderFailedCounter.increment();
+    public void incrementQuoteRedemption(String outcome) {
+        Counter.builder("order.quote.redemptions")
+                .description("Orders submitted with a quote, by whether the quote could be used")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+    
+    public void incrementOrderFailed(OrderFailureReason reason, int itemCount) {
+        Counter.builder("order.failed")
+                .description("Total orders failed")
+                .tag("reason", reason.name().toLowerCase())
+                .tag("items", itemBucket(itemCount))
+                .register(registry)
+                .increment();
     }
     
     public Timer.Sample startTimer() {
         return Timer.start();
     }
     
-    public void recordProcessingTime(Timer.Sample sample) {
-        sample.stop(orderProcessingTimer);
+    public void recordProcessingTime(Timer.Sample sample, int itemCount) {
+        sample.stop(processingTimers.get(itemBucket(itemCount)));
+    }
+    
+    public Timer stageTimer(OrderStage stage, int itemCount) {
+        return stageTimers.get(stage).get(itemBucket(itemCount));
+    }
+    
+    // Fixed buckets keep the items tag low-cardinality
+    private static String itemBucket(int itemCount) {
+        if (itemCount <= 1) {
+            return ITEM_BUCKETS[0];
+        }
+        if (itemCount <= 5) {
+            return ITEM_BUCKETS[1];
+        }
+        if (itemCount <= 20) {
+            return ITEM_BUCKETS[2];
+        }
+        if (itemCount <= 100) {
+            return ITEM_BUCKETS[3];
+        }
+        return ITEM_BUCKETS[4];
+    }
+    
+    public void recordOutboxPublishDelay(Duration delay) {
+        outboxPublishDelayTimer.record(delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+    
+    public void updateOutboxBacklog(long backlog, long lagMillis) {
+        outboxBacklog.set(backlog);
+        outboxLagMillis.set(lagMillis);
+    }
+    
+    public void recordValidationTime(Timer.Sample sample, ValidationMode mode) {
+        sample.stop(validationTimers.get(mode));
     }
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.stockmanagement.order_service.metrics;
+
+public enum OrderStage {
+    PRODUCT_FETCH,
+    INVENTORY_CHECK,
+    RESERVATION,
+    PERSISTENCE,
+    EVENT_PUBLISH,
+    ROLLBACK
+}
@@ -0,0 +1,91 @@
+package com.stockmanagement.order_service.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+// Immutable amount held as a long count of the currency's minor units; pricing math stays in primitive longs
+// and BigDecimal only appears when converting at the persistence and JSON boundaries
+// order-service and supplier-service each carry an identical copy of this class, since the services share no
+// library module; change both together (supplier-service's SharedSourceDriftTest fails when they differ)
+public final class Money {
+    
+    private final long minorUnits;
+    private final Currency currency;
+    
+    private Money(long minorUnits, Currency currency) {
+        this.minorUnits = minorUnits;
+        this.currency = Objects.requireNonNull(currency, "currency");
+    }
+    
+    public static Money ofMinor(long minorUnits, Currency currency) {
+        return new Money(minorUnits, currency);
+    }
+    
+    public static Money zero(Currency currency) {
+        return new Money(0, currency);
+    }
+    
+    // Exact: an amount with more decimals than the currency allows is rejected rather than rounded
+    public static Money of(BigDecimal amount, Currency currency) {
+        try {
+            BigDecimal scaled = amount.setScale(currency.getDefaultFractionDigits(), RoundingMode.UNNECESSARY);
+            return new Money(scaled.unscaledValue().longValueExact(), currency);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount " + amount + " is not representable in " + currency, e);
+        }
+    }
+    
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+    
+    public Money times(long quantity) {
+        return new Money(Math.multiplyExact(minorUnits, quantity), currency);
+    }
+    
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits), currency);
+    }
+    
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+    
+    public Currency getCurrency() {
+        return currency;
+    }
+    
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+    }
+    
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " and " + other.currency);
+        }
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Money other)) {
+            return false;
+        }
+        return minorUnits == other.minorUnits && currency.equals(other.currency);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(minorUnits, currency);
+    }
+    
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency.getCurrencyCode();
+    }
+}
@@ -1,46 +1,65 @@
 package com.stockmanagement.order_service.publisher;
 
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.stockmanagement.order_service.config.RabbitMQConfig;
+import com.stockmanagement.order_service.entity.OutboxEvent;
 import com.stockmanagement.order_service.event.OrderCancelledEvent;
 import com.stockmanagement.order_service.event.OrderConfirmedEvent;
 import com.stockmanagement.order_service.event.OrderCreatedEvent;
+import com.stockmanagement.order_service.event.StockCommand;
+import com.stockmanagement.order_service.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+// Events are written to the outbox in the caller's transaction and sent to RabbitMQ by OutboxRelay
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OrderEventPublisher {
     
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
     
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishOrderCreatedEvent(OrderCreatedEvent event) {
-        log.info("Publishing order created event: {}", event.getOrderNumber());
-        rabbitTemplate.convertAndSend(
-                RabbitMQConfig.ORDER_EXCHANGE,
-                RabbitMQConfig.ORDER_CREATED_ROUTING_KEY,
-                event
-        );
+        log.info("Queueing order created event: {}", event.getOrderNumber());
+        enqueue(event.getOrderId(), RabbitMQConfig.ORDER_CREATED_ROUTING_KEY, event);
     }
     
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishOrderCancelledEvent(OrderCancelledEvent event) {
-        log.info("Publishing order cancelled event: {}", event.getOrderNumber());
-        rabbitTemplate.convertAndSend(
-                RabbitMQConfig.ORDER_EXCHANGE,
-                RabbitMQConfig.ORDER_CANCELLED_ROUTING_KEY,
-                event
-        );
+        log.info("Queueing order cancelled event: {}", event.getOrderNumber());
+        enqueue(event.getOrderId(), RabbitMQConfig.ORDER_CANCELLED_ROUTING_KEY, event);
     }
     
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishOrderConfirmedEvent(OrderConfirmedEvent event) {
-        log.info("Publishing order confirmed event: {}", event.getOrderNumber());
-        rabbitTemplate.convertAndSend(
-                RabbitMQConfig.ORDER_EXCHANGE,
-                RabbitMQConfig.ORDER_CONFIRMED_ROUTING_KEY,
-                event
-        );
+        log.info("Queueing order confirmed event: {}", event.getOrderNumber());
+        enqueue(event.getOrderId(), RabbitMQConfig.ORDER_CONFIRMED_ROUTING_KEY, event);
     }
-}
\ No newline at end of file
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void sendStockCommand(StockCommand command) {
+        log.info("Queueing {} stock command for order: {}", command.getType(), command.getOrderId());
+        enqueue(command.getOrderId(), RabbitMQConfig.SAGA_STOCK_COMMAND_ROUTING_KEY, command);
+    }
+    
+    private void enqueue(Long aggregateId, String routingKey, Object event) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setAggregateId(aggregateId);
+        outboxEvent.setExchange(RabbitMQConfig.ORDER_EXCHANGE);
+        outboxEvent.setRoutingKey(routingKey);
+        outboxEvent.setEventType(event.getClass().getName());
+        try {
+            outboxEvent.setPayload(objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize event: " + event.getClass().getSimpleName(), e);
+        }
+        outboxEventRepository.save(outboxEvent);
+    }
+}
@@ -0,0 +1,100 @@
+package com.stockmanagement.order_service.publisher;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockmanagement.order_service.entity.OutboxEvent;
+import com.stockmanagement.order_service.metrics.OrderMetrics;
+import com.stockmanagement.order_service.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@Slf4j
+public class OutboxRelay {
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final OrderMetrics orderMetrics;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${order.outbox.batch-size:100}")
+    private int batchSize;
+    
+    @Value("${order.outbox.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+    
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       RabbitTemplate rabbitTemplate,
+                       ObjectMapper objectMapper,
+                       OrderMetrics orderMetrics,
+                       PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+        this.orderMetrics = orderMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @Scheduled(fixedDelayString = "${order.outbox.poll-interval-ms:500}")
+    public void relay() {
+        try {
+            Integer published;
+            do {
+                published = transactionTemplate.execute(status -> publishNextBatch());
+            } while (published != null && published == batchSize);
+        } catch (Exception e) {
+            log.error("Error relaying outbox events", e);
+        } finally {
+            refreshBacklogMetrics();
+        }
+    }
+    
+    // Rows are deleted only after the broker confirmed the whole batch; a failure rolls back and the batch is retried
+    private int publishNextBatch() {
+        List<OutboxEvent> events = outboxEventRepository.lockNextBatch(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        
+        rabbitTemplate.invoke(operations -> {
+            for (OutboxEvent event : events) {
+                operations.convertAndSend(event.getExchange(), event.getRoutingKey(), deserialize(event));
+            }
+            operations.waitForConfirmsOrDie(confirmTimeoutMs);
+            return null;
+        });
+        
+        outboxEventRepository.deleteAllInBatch(events);
+        
+        LocalDateTime now = LocalDateTime.now();
+        events.forEach(event -> orderMetrics.recordOutboxPublishDelay(Duration.between(event.getCreatedAt(), now)));
+        log.debug("Relayed {} outbox events", events.size());
+        return events.size();
+    }
+    
+    private Object deserialize(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), Class.forName(event.getEventType()));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to deserialize outbox event: " + event.getId(), e);
+        }
+    }
+    
+    private void refreshBacklogMetrics() {
+        try {
+            LocalDateTime oldest = outboxEventRepository.findOldestCreatedAt();
+            long lagMillis = oldest != null ? Duration.between(oldest, LocalDateTime.now()).toMillis() : 0;
+            orderMetrics.updateOutboxBacklog(outboxEventRepository.count(), lagMillis);
+        } catch (Exception e) {
+            log.error("Error refreshing outbox metrics", e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.stockmanagement.order_service.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+import com.stockmanagement.order_service.entity.ArchivedOrder;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+    
+    Optional<ArchivedOrder> findByOrderNumber(String orderNumber);
+}
@@ -0,0 +1,62 @@
+package com.stockmanagement.order_service.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import com.stockmanagement.order_service.entity.IdempotencyRecord;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    
+    // Returns 1 only for the request that inserted the key; concurrent duplicates get 0. The key is the only unique
+    // constraint, so the conflict target is left out, which H2 in PostgreSQL mode also accepts
+    @Modifying
+    @Query(value = "INSERT INTO order_idempotency_keys (idempotency_key, request_hash, owner_token, status, created_at, updated_at) " +
+            "VALUES (:key, :requestHash, :owner, 'IN_PROGRESS', :now, :now) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("key") String key,
+                       @Param("requestHash") String requestHash,
+                       @Param("owner") String owner,
+                       @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.ownerToken = :owner, r.updatedAt = :now " +
+            "WHERE r.idempotencyKey = :key AND r.status = com.stockmanagement.order_service.entity.IdempotencyStatus.IN_PROGRESS " +
+            "AND r.updatedAt < :staleBefore")
+    int claimStale(@Param("key") String key,
+                   @Param("staleBefore") LocalDateTime staleBefore,
+                   @Param("owner") String owner,
+                   @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.updatedAt = :now " +
+            "WHERE r.idempotencyKey = :key AND r.ownerToken = :owner " +
+            "AND r.status = com.stockmanagement.order_service.entity.IdempotencyStatus.IN_PROGRESS")
+    int renewClaim(@Param("key") String key,
+                   @Param("owner") String owner,
+                   @Param("now") LocalDateTime now);
+    
+    // Returns 0 when the claim was taken over, in which case the caller must roll back its work
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = com.stockmanagement.order_service.entity.IdempotencyStatus.COMPLETED, " +
+            "r.responseBody = :responseBody, r.updatedAt = :now " +
+            "WHERE r.idempotencyKey = :key AND r.ownerToken = :owner " +
+            "AND r.status = com.stockmanagement.order_service.entity.IdempotencyStatus.IN_PROGRESS")
+    int markCompleted(@Param("key") String key,
+                      @Param("owner") String owner,
+                      @Param("responseBody") String responseBody,
+                      @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key AND r.ownerToken = :owner " +
+            "AND r.status = com.stockmanagement.order_service.entity.IdempotencyStatus.IN_PROGRESS")
+    int releaseClaim(@Param("key") String key,
+                     @Param("owner") String owner);
+    
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.updatedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
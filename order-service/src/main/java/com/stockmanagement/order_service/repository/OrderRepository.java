@@ -1,16 +1,134 @@
 package com.stockmanagement.order_service.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import com.stockmanagement.order_service.dto.OrderSummaryResponse;
 import com.stockmanagement.order_service.entity.Order;
 import com.stockmanagement.order_service.entity.OrderStatus;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+    @EntityGraph(attributePaths = "items")
     Optional<Order> findByOrderNumber(String orderNumber);
+    
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsById(Long id);
+    
+    // Async workers and the stalled-order sweep serialize on the row, so an order is never processed twice
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findForUpdate(@Param("id") Long id);
+    
+    // Saga-driven orders are PENDING too but are timed out by their own sweep
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status AND o.createdAt < :createdBefore " +
+            "AND NOT EXISTS (SELECT s.orderId FROM OrderSaga s WHERE s.orderId = o.id) ORDER BY o.createdAt")
+    List<Long> findStalledAsyncOrderIds(@Param("status") OrderStatus status,
+                                        @Param("createdBefore") LocalDateTime createdBefore,
+                                        Limit limit);
+    
+    @EntityGraph(attributePaths = "items")
     List<Order> findByCustomerId(Long customerId);
+    
+    @EntityGraph(attributePaths = "items")
+    @Query("SELECT o FROM Order o")
+    List<Order> findAllWithItems();
+    
     List<Order> findByStatus(OrderStatus status);
     List<Order> findByCustomerIdAndStatus(Long customerId, OrderStatus status);
-}
\ No newline at end of file
+    
+    List<Order> findByIdLessThanOrderByIdDesc(Long id, Limit limit);
+    List<Order> findByCustomerIdAndIdLessThanOrderByIdDesc(Long customerId, Long id, Limit limit);
+    
+    @Query("SELECT new com.stockmanagement.order_service.dto.OrderSummaryResponse(" +
+            "o.id, o.orderNumber, o.customerId, o.warehouseId, o.status, o.totalAmount, SIZE(o.items), o.createdAt) " +
+            "FROM Order o WHERE o.customerId = :customerId AND o.id < :beforeId ORDER BY o.id DESC")
+    List<OrderSummaryResponse> findSummariesByCustomerId(@Param("customerId") Long customerId,
+                                                         @Param("beforeId") Long beforeId,
+                                                         Limit limit);
+    
+    // Dashboard queries walk (status[, warehouse_id], created_at, id) backwards from the (beforeCreatedAt, beforeId) cursor
+    @Query("SELECT new com.stockmanagement.order_service.dto.OrderSummaryResponse(" +
+            "o.id, o.orderNumber, o.customerId, o.warehouseId, o.status, o.totalAmount, SIZE(o.items), o.createdAt) " +
+            "FROM Order o WHERE o.status = :status AND o.createdAt >= :from AND o.createdAt <= :beforeCreatedAt " +
+            "AND (o.createdAt < :beforeCreatedAt OR o.id < :beforeId) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummaryResponse> findSummariesByStatus(@Param("status") OrderStatus status,
+                                                     @Param("from") LocalDateTime from,
+                                                     @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                                     @Param("beforeId") Long beforeId,
+                                                     Limit limit);
+    
+    @Query("SELECT new com.stockmanagement.order_service.dto.OrderSummaryResponse(" +
+            "o.id, o.orderNumber, o.customerId, o.warehouseId, o.status, o.totalAmount, SIZE(o.items), o.createdAt) " +
+            "FROM Order o WHERE o.status = :status AND o.warehouseId = :warehouseId " +
+            "AND o.createdAt >= :from AND o.createdAt <= :beforeCreatedAt " +
+            "AND (o.createdAt < :beforeCreatedAt OR o.id < :beforeId) " +
+            "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummaryResponse> findSummariesByStatusAndWarehouse(@Param("status") OrderStatus status,
+                                                                 @Param("warehouseId") Long warehouseId,
+                                                                 @Param("from") LocalDateTime from,
+                                                                 @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                                                 @Param("beforeId") Long beforeId,
+                                                                 Limit limit);
+    
+    // Walks idx_order_items_product_order backwards from the cursor; an order with several lines of the product appears once per line
+    @Query("SELECT new com.stockmanagement.order_service.dto.OrderSummaryResponse(" +
+            "o.id, o.orderNumber, o.customerId, o.warehouseId, o.status, o.totalAmount, SIZE(o.items), o.createdAt) " +
+            "FROM OrderItem i JOIN i.order o WHERE i.productId = :productId AND i.order.id < :beforeId " +
+            "AND o.status IN :statuses AND o.createdAt >= :from AND o.createdAt < :to " +
+            "ORDER BY i.order.id DESC")
+    List<OrderSummaryResponse> findSummariesByProduct(@Param("productId") Long productId,
+                                                      @Param("statuses") Collection<OrderStatus> statuses,
+                                                      @Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to,
+                                                      @Param("beforeId") Long beforeId,
+                                                      Limit limit);
+    
+    // Every referenced column is in the index, so Postgres can answer these with an index-only scan
+    @Query("SELECT COUNT(o.id) FROM Order o WHERE o.status = :status AND o.createdAt >= :from AND o.createdAt < :to")
+    long countByStatusBetween(@Param("status") OrderStatus status,
+                              @Param("from") LocalDateTime from,
+                              @Param("to") LocalDateTime to);
+    
+    @Query("SELECT COUNT(o.id) FROM Order o WHERE o.status = :status AND o.warehouseId = :warehouseId " +
+            "AND o.createdAt >= :from AND o.createdAt < :to")
+    long countByStatusAndWarehouseBetween(@Param("status") OrderStatus status,
+                                          @Param("warehouseId") Long warehouseId,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to);
+    
+    // Export walks forwards by id; items of a whole page are loaded by one batch fetch
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Order> findByIdGreaterThanOrderById(Long afterId, Limit limit);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Order> findByCustomerIdAndIdGreaterThanOrderById(Long customerId, Long afterId, Limit limit);
+    
+    // Archival walks closed orders oldest-id first; the partition key bound keeps the scan inside old partitions.
+    // SKIP LOCKED hands each replica a disjoint batch. Items are not fetch-joined: with a limit Hibernate would page
+    // in memory, so they come from the batch fetch.
+    @Query(value = "SELECT * FROM orders WHERE status IN (:statuses) AND created_at < :cutoff AND id > :afterId " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Order> lockArchivable(@Param("statuses") Collection<String> statuses,
+                               @Param("cutoff") LocalDateTime cutoff,
+                               @Param("afterId") Long afterId,
+                               @Param("limit") int limit);
+    
+    @Modifying
+    @Query("DELETE FROM OrderItem i WHERE i.order.id IN :orderIds AND i.orderCreatedAt < :cutoff")
+    int deleteItemsByOrderIds(@Param("orderIds") Collection<Long> orderIds, @Param("cutoff") LocalDateTime cutoff);
+}
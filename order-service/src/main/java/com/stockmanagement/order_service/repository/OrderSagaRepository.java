@@ -0,0 +1,15 @@
+package com.stockmanagement.order_service.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import com.stockmanagement.order_service.entity.OrderSaga;
+import com.stockmanagement.order_service.entity.SagaState;
+
+@Repository
+public interface OrderSagaRepository extends JpaRepository<OrderSaga, Long> {
+    
+    List<OrderSaga> findTop100ByStateInAndDeadlineBeforeOrderByDeadline(Collection<SagaState> states, LocalDateTime now);
+}
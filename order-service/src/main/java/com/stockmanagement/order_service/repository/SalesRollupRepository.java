@@ -0,0 +1,49 @@
+package com.stockmanagement.order_service.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import com.stockmanagement.order_service.entity.RollupGrain;
+import com.stockmanagement.order_service.entity.SalesRollup;
+import com.stockmanagement.order_service.entity.SalesRollupId;
+
+@Repository
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, SalesRollupId> {
+    
+    @Modifying
+    @Query(value = "INSERT INTO order_sales_rollups (grain, bucket_start, warehouse_id, product_id, order_count, units, revenue) " +
+            "VALUES (:grain, :bucketStart, :warehouseId, :productId, :orderCount, :units, :revenue) " +
+            "ON CONFLICT (grain, bucket_start, warehouse_id, product_id) DO UPDATE SET " +
+            "order_count = order_sales_rollups.order_count + EXCLUDED.order_count, " +
+            "units = order_sales_rollups.units + EXCLUDED.units, " +
+            "revenue = order_sales_rollups.revenue + EXCLUDED.revenue",
+            nativeQuery = true)
+    int upsert(@Param("grain") String grain,
+               @Param("bucketStart") LocalDateTime bucketStart,
+               @Param("warehouseId") Long warehouseId,
+               @Param("productId") Long productId,
+               @Param("orderCount") long orderCount,
+               @Param("units") long units,
+               @Param("revenue") BigDecimal revenue);
+    
+    @Query("SELECT r FROM SalesRollup r WHERE r.id.grain = :grain AND r.id.productId = :productId " +
+            "AND r.id.bucketStart >= :from AND r.id.bucketStart < :to ORDER BY r.id.bucketStart, r.id.warehouseId")
+    List<SalesRollup> findRange(@Param("grain") RollupGrain grain,
+                                @Param("productId") Long productId,
+                                @Param("from") LocalDateTime from,
+                                @Param("to") LocalDateTime to);
+    
+    @Query("SELECT r FROM SalesRollup r WHERE r.id.grain = :grain AND r.id.warehouseId = :warehouseId " +
+            "AND r.id.productId = :productId AND r.id.bucketStart >= :from AND r.id.bucketStart < :to " +
+            "ORDER BY r.id.bucketStart")
+    List<SalesRollup> findRangeForWarehouse(@Param("grain") RollupGrain grain,
+                                            @Param("warehouseId") Long warehouseId,
+                                            @Param("productId") Long productId,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to);
+}
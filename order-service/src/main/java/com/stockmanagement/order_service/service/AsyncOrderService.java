@@ -0,0 +1,136 @@
+package com.stockmanagement.order_service.service;
+
+import com.stockmanagement.order_service.dto.OrderRequest;
+import com.stockmanagement.order_service.dto.OrderResponse;
+import com.stockmanagement.order_service.exception.OrderQueueFullException;
+import com.stockmanagement.order_service.metrics.OrderMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Slf4j
+public class AsyncOrderService {
+    
+    private final OrderService orderService;
+    private final OrderSagaService orderSagaService;
+    private final OrderMetrics orderMetrics;
+    private final AsyncProcessingMode processingMode;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore admission;
+    
+    @Value("${order.async.stalled-after-ms:300000}")
+    private long stalledAfterMs;
+    
+    @Value("${order.async.sweep-batch-size:100}")
+    private int sweepBatchSize;
+    
+    public AsyncOrderService(OrderService orderService,
+                             OrderSagaService orderSagaService,
+                             OrderMetrics orderMetrics,
+                             @Value("${order.async.processing:WORKERS}") AsyncProcessingMode processingMode,
+                             @Value("${order.async.workers:8}") int workers,
+                             @Value("${order.async.queue-capacity:1000}") int queueCapacity) {
+        this.orderService = orderService;
+        this.orderSagaService = orderSagaService;
+        this.orderMetrics = orderMetrics;
+        this.processingMode = processingMode;
+        ThreadFactory threadFactory = Thread.ofPlatform().name("order-async-", 0).factory();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory);
+        // One permit per worker plus one per queue slot, taken before the order is persisted
+        this.admission = new Semaphore(workers + queueCapacity);
+        orderMetrics.monitorAsyncQueue(executor);
+    }
+    
+    public OrderResponse submitOrder(OrderRequest request) {
+        // In saga mode nothing is held in memory; inventory replies drive the order from the message queue
+        if (processingMode == AsyncProcessingMode.SAGA) {
+            return orderSagaService.submitOrder(request);
+        }
+        
+        if (!admission.tryAcquire()) {
+            orderMetrics.incrementAsyncRejected();
+            throw new OrderQueueFullException("Order queue is full, retry later");
+        }
+        
+        OrderResponse response;
+        try {
+            response = orderService.acceptOrder(request);
+        } catch (RuntimeException e) {
+            admission.release();
+            throw e;
+        }
+        
+        enqueue(response.getId());
+        return response;
+    }
+    
+    // Picks up orders a worker never finished: queued when an instance stopped or crashed, or whose failure could
+    // not be recorded. processAcceptedOrder locks the row and skips settled orders, so an order still queued on a
+    // live instance is not processed twice.
+    @Scheduled(initialDelay = 0, fixedDelayString = "${order.async.sweep-interval-ms:60000}")
+    public void resumeStalledOrders() {
+        if (processingMode == AsyncProcessingMode.SAGA || executor.isShutdown()) {
+            return;
+        }
+        List<Long> stalled = orderService.findStalledAsyncOrderIds(Duration.ofMillis(stalledAfterMs), sweepBatchSize);
+        for (Long orderId : stalled) {
+            if (!admission.tryAcquire()) {
+                log.debug("Async order queue is full, leaving remaining stalled orders for the next sweep");
+                return;
+            }
+            log.info("Resuming stalled order: {}", orderId);
+            enqueue(orderId);
+        }
+    }
+    
+    // The caller holds an admission permit, released when the task finishes or cannot be queued
+    private void enqueue(Long orderId) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                try {
+                    orderMetrics.recordAsyncQueueWait(Duration.ofNanos(System.nanoTime() - enqueuedAt));
+                    orderService.processAcceptedOrder(orderId);
+                } catch (Exception e) {
+                    log.error("Error processing accepted order: {}", orderId, e);
+                    failOrder(orderId);
+                } finally {
+                    admission.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            admission.release();
+            log.warn("Async order workers are shutting down, order {} is left for the stalled-order sweep", orderId);
+        }
+    }
+    
+    private void failOrder(Long orderId) {
+        try {
+            orderService.failAcceptedOrder(orderId);
+        } catch (Exception e) {
+            log.error("Could not mark order {} as failed, leaving it for the stalled-order sweep", orderId, e);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            List<Runnable> unstarted = executor.shutdownNow();
+            log.warn("Async order workers did not finish, {} orders left PENDING for the stalled-order sweep",
+                    unstarted.size());
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.stockmanagement.order_service.service;
+
+public enum AsyncProcessingMode {
+    WORKERS,
+    SAGA
+}
@@ -0,0 +1,200 @@
+package com.stockmanagement.order_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockmanagement.order_service.entity.IdempotencyRecord;
+import com.stockmanagement.order_service.entity.IdempotencyStatus;
+import com.stockmanagement.order_service.exception.DuplicateRequestInProgressException;
+import com.stockmanagement.order_service.exception.IdempotencyKeyMismatchException;
+import com.stockmanagement.order_service.repository.IdempotencyRecordRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Service
+@Slf4j
+public class IdempotencyService {
+    
+    private static final long POLL_INTERVAL_MS = 100;
+    private static final int MAX_KEY_LENGTH = 100;
+    
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate newTransactionTemplate;
+    private final ScheduledExecutorService claimRenewer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("idempotency-claim-renewer").daemon().factory());
+    
+    @Value("${order.idempotency.wait-timeout-ms:5000}")
+    private long waitTimeoutMs;
+    
+    @Value("${order.idempotency.in-progress-timeout-ms:60000}")
+    private long inProgressTimeoutMs;
+    
+    @Value("${order.idempotency.retention-hours:24}")
+    private long retentionHours;
+    
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    // Runs the action at most once per key; duplicates replay the stored response or wait for the first attempt.
+    // A running attempt keeps renewing its claim, so only one whose instance died is ever taken over, and an
+    // attempt that lost its claim anyway rolls back instead of committing a second order.
+    public <T> T execute(String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+        String owner = UUID.randomUUID().toString();
+        long deadline = System.currentTimeMillis() + waitTimeoutMs;
+        
+        while (true) {
+            if (claim(key, requestHash, owner)) {
+                return runClaimed(key, owner, action);
+            }
+            
+            Optional<IdempotencyRecord> existing = repository.findById(key);
+            if (existing.isPresent()) {
+                IdempotencyRecord record = existing.get();
+                if (!record.getRequestHash().equals(requestHash)) {
+                    throw new IdempotencyKeyMismatchException(
+                            "Idempotency key " + key + " was already used for a different request");
+                }
+                if (record.getStatus() == IdempotencyStatus.COMPLETED) {
+                    log.info("Replaying stored response for idempotency key: {}", key);
+                    return deserialize(record.getResponseBody(), responseType);
+                }
+                if (claimStale(key, owner)) {
+                    log.warn("Taking over stale in-progress request for idempotency key: {}", key);
+                    return runClaimed(key, owner, action);
+                }
+            }
+            
+            if (System.currentTimeMillis() >= deadline) {
+                throw new DuplicateRequestInProgressException(
+                        "A request with idempotency key " + key + " is still in progress");
+            }
+            sleep();
+        }
+    }
+    
+    // The order and the stored response commit together, so a completed key always points at a committed order
+    private <T> T runClaimed(String key, String owner, Supplier<T> action) {
+        long renewIntervalMs = Math.max(1, inProgressTimeoutMs / 3);
+        ScheduledFuture<?> renewal = claimRenewer.scheduleAtFixedRate(() -> renewClaim(key, owner),
+                renewIntervalMs, renewIntervalMs, TimeUnit.MILLISECONDS);
+        try {
+            return transactionTemplate.execute(status -> {
+                T response = action.get();
+                if (repository.markCompleted(key, owner, serialize(response), LocalDateTime.now()) != 1) {
+                    throw new DuplicateRequestInProgressException(
+                            "Request with idempotency key " + key + " was taken over by a retry");
+                }
+                return response;
+            });
+        } catch (RuntimeException e) {
+            newTransactionTemplate.executeWithoutResult(status -> repository.releaseClaim(key, owner));
+            throw e;
+        } finally {
+            renewal.cancel(false);
+        }
+    }
+    
+    private void renewClaim(String key, String owner) {
+        try {
+            Integer renewed = newTransactionTemplate.execute(status ->
+                    repository.renewClaim(key, owner, LocalDateTime.now()));
+            if (renewed == null || renewed == 0) {
+                log.debug("Claim on idempotency key {} is no longer held", key);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to renew claim on idempotency key: {}", key, e);
+        }
+    }
+    
+    private boolean claim(String key, String requestHash, String owner) {
+        Integer inserted = newTransactionTemplate.execute(status ->
+                repository.insertIfAbsent(key, requestHash, owner, LocalDateTime.now()));
+        return inserted != null && inserted == 1;
+    }
+    
+    private boolean claimStale(String key, String owner) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = newTransactionTemplate.execute(status ->
+                repository.claimStale(key, now.minusNanos(inProgressTimeoutMs * 1_000_000), owner, now));
+        return claimed != null && claimed == 1;
+    }
+    
+    @Scheduled(fixedDelayString = "${order.idempotency.cleanup-interval-ms:3600000}")
+    public void purgeExpiredKeys() {
+        try {
+            Integer deleted = transactionTemplate.execute(status ->
+                    repository.deleteOlderThan(LocalDateTime.now().minusHours(retentionHours)));
+            log.debug("Purged {} expired idempotency keys", deleted);
+        } catch (Exception e) {
+            log.error("Error purging expired idempotency keys", e);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        claimRenewer.shutdownNow();
+    }
+    
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Failed to hash request", e);
+        }
+    }
+    
+    private String serialize(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize response", e);
+        }
+    }
+    
+    private <T> T deserialize(String body, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(body, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to deserialize stored response", e);
+        }
+    }
+    
+    private void sleep() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DuplicateRequestInProgressException("Interrupted while waiting for a duplicate request");
+        }
+    }
+}
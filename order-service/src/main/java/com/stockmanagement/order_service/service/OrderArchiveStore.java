@@ -0,0 +1,153 @@
+package com.stockmanagement.order_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockmanagement.order_service.dto.OrderResponse;
+import com.stockmanagement.order_service.entity.ArchivedOrder;
+import com.stockmanagement.order_service.exception.OrderNotFoundException;
+import com.stockmanagement.order_service.repository.ArchivedOrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Cold storage for closed orders: gzip NDJSON files located through order_archive_index. The archived rows are
+// deleted from the database, so the directory must be durable storage shared by every instance (e.g. a persistent
+// volume), never the container's own disk.
+@Component
+@Slf4j
+public class OrderArchiveStore {
+    
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    
+    public OrderArchiveStore(ArchivedOrderRepository archivedOrderRepository,
+                             ObjectMapper objectMapper,
+                             @Value("${order.archive.enabled:false}") boolean enabled,
+                             @Value("${order.archive.directory:}") String directory) {
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.objectMapper = objectMapper;
+        this.directory = directory.isBlank() ? null : Paths.get(directory);
+        if (enabled) {
+            // A missing mount must stop the service rather than let archives land on ephemeral disk
+            if (this.directory == null) {
+                throw new IllegalStateException("order.archive.directory must be set when order archival is enabled");
+            }
+            if (!Files.isDirectory(this.directory) || !Files.isWritable(this.directory)) {
+                throw new IllegalStateException("Order archive directory is missing or not writable: " + this.directory);
+            }
+        }
+    }
+    
+    // The file is synced before the index rows are written and removed again if the surrounding transaction rolls back.
+    // Every write gets its own file name, so a rollback only ever removes the file this call created.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void write(List<OrderResponse> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        
+        String fileName = String.format("orders-%d-%d-%s.ndjson.gz",
+                orders.get(0).getId(), orders.get(orders.size() - 1).getId(), UUID.randomUUID());
+        Path target = directory.resolve(fileName);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory, "orders-", ".tmp");
+            try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+                GZIPOutputStream gzip = new GZIPOutputStream(out);
+                BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8));
+                for (OrderResponse order : orders) {
+                    writer.write(objectMapper.writeValueAsString(order));
+                    writer.newLine();
+                }
+                writer.flush();
+                gzip.finish();
+                out.getFD().sync();
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            if (temp != null) {
+                deleteQuietly(temp);
+            }
+            throw new UncheckedIOException("Failed to write order archive " + fileName, e);
+        }
+        
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    deleteQuietly(target);
+                }
+            }
+        });
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<ArchivedOrder> entries = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            OrderResponse order = orders.get(i);
+            entries.add(new ArchivedOrder(order.getId(), order.getOrderNumber(), fileName, i, order.getCreatedAt(), now));
+        }
+        archivedOrderRepository.saveAll(entries);
+        log.info("Archived {} orders to {}", orders.size(), target);
+    }
+    
+    public Optional<OrderResponse> findByOrderNumber(String orderNumber) {
+        return archivedOrderRepository.findByOrderNumber(orderNumber)
+                .map(this::read);
+    }
+    
+    private OrderResponse read(ArchivedOrder entry) {
+        if (directory == null) {
+            log.error("Order {} is archived but order.archive.directory is not set", entry.getOrderNumber());
+            throw new OrderNotFoundException("Archived order is unavailable: " + entry.getOrderNumber());
+        }
+        Path file = directory.resolve(entry.getArchiveFile());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line = null;
+            for (int i = 0; i <= entry.getLineNumber(); i++) {
+                line = reader.readLine();
+                if (line == null) {
+                    throw new IllegalStateException("Archive " + file + " has no line " + entry.getLineNumber());
+                }
+            }
+            return objectMapper.readValue(line, OrderResponse.class);
+        } catch (NoSuchFileException e) {
+            log.error("Archive {} holding order {} is missing", file, entry.getOrderNumber());
+            throw new OrderNotFoundException("Archived order is unavailable: " + entry.getOrderNumber());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read order archive " + file, e);
+        }
+    }
+    
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not remove orphaned archive {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.stockmanagement.order_service.service;
+
+import com.stockmanagement.order_service.entity.Order;
+import com.stockmanagement.order_service.entity.OrderStatus;
+import com.stockmanagement.order_service.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class OrderArchiver {
+    
+    private static final Set<String> CLOSED_STATUSES = Set.of(
+            OrderStatus.DELIVERED.name(), OrderStatus.CANCELLED.name(), OrderStatus.FAILED.name());
+    
+    private final OrderRepository orderRepository;
+    private final OrderService orderService;
+    private final OrderArchiveStore orderArchiveStore;
+    private final ObjectProvider<OrderPartitionManager> partitionManager;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${order.archive.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${order.archive.retention-months:6}")
+    private int retentionMonths;
+    
+    @Value("${order.archive.batch-size:500}")
+    private int batchSize;
+    
+    public OrderArchiver(OrderRepository orderRepository,
+                         OrderService orderService,
+                         OrderArchiveStore orderArchiveStore,
+                         ObjectProvider<OrderPartitionManager> partitionManager,
+                         PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.orderService = orderService;
+        this.orderArchiveStore = orderArchiveStore;
+        this.partitionManager = partitionManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @Scheduled(cron = "${order.archive.cron:0 30 3 * * *}")
+    public void archive() {
+        if (!enabled) {
+            return;
+        }
+        
+        YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+        long total = 0;
+        long afterId = 0;
+        try {
+            List<Long> archived;
+            do {
+                long from = afterId;
+                archived = transactionTemplate.execute(status -> archiveBatch(cutoff, from));
+                if (!archived.isEmpty()) {
+                    afterId = archived.get(archived.size() - 1);
+                    total += archived.size();
+                }
+            } while (archived.size() == batchSize);
+            
+            partitionManager.ifAvailable(manager -> manager.dropEmptyPartitionsBefore(cutoff));
+        } catch (Exception e) {
+            log.error("Order archival stopped after {} orders", total, e);
+        }
+        log.info("Archived {} orders created before {}", total, cutoff);
+    }
+    
+    // File, index rows and deletes share one transaction, so an order is either live or archived, never both or
+    // neither. The batch stays row-locked until that transaction ends, so other replicas archive different orders.
+    private List<Long> archiveBatch(YearMonth cutoff, long afterId) {
+        LocalDateTime cutoffTime = cutoff.atDay(1).atStartOfDay();
+        List<Order> orders = orderRepository.lockArchivable(CLOSED_STATUSES, cutoffTime, afterId, batchSize);
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        
+        orderArchiveStore.write(orders.stream()
+                .map(orderService::mapToResponse)
+                .collect(Collectors.toList()));
+        
+        List<Long> ids = orders.stream().map(Order::getId).collect(Collectors.toList());
+        // The cutoff bound lets PostgreSQL prune the item delete to the old partitions
+        orderRepository.deleteItemsByOrderIds(ids, cutoffTime);
+        orderRepository.deleteAllByIdInBatch(ids);
+        return ids;
+    }
+}
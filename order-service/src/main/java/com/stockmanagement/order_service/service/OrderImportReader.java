@@ -0,0 +1,133 @@
+package com.stockmanagement.order_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockmanagement.order_service.dto.OrderItemRequest;
+import com.stockmanagement.order_service.dto.OrderRequest;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Objects;
+
+// Reads one order at a time from an NDJSON or CSV feed; CSV rows sharing a reference form one order
+class OrderImportReader {
+    
+    static final String CSV_HEADER = "reference,customerId,warehouseId,productId,quantity,notes";
+    
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private int lineNumber;
+    private String[] pendingRow;
+    private int pendingRowLine;
+    
+    private OrderImportReader(InputStream input, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.objectMapper = objectMapper;
+    }
+    
+    static OrderImportReader ndjson(InputStream input, ObjectMapper objectMapper) {
+        return new OrderImportReader(input, objectMapper);
+    }
+    
+    static OrderImportReader csv(InputStream input) throws IOException {
+        OrderImportReader importReader = new OrderImportReader(input, null);
+        String header = importReader.nextLine();
+        if (header == null || !header.replace(" ", "").toLowerCase().startsWith("reference,customerid")) {
+            throw new IllegalArgumentException("CSV import must start with the header: " + CSV_HEADER);
+        }
+        importReader.pendingRow = importReader.nextCsvRow();
+        importReader.pendingRowLine = importReader.lineNumber;
+        return importReader;
+    }
+    
+    ImportedOrder next() throws IOException {
+        return objectMapper != null ? nextJson() : nextCsv();
+    }
+    
+    private ImportedOrder nextJson() throws IOException {
+        String line = nextLine();
+        if (line == null) {
+            return null;
+        }
+        try {
+            return new ImportedOrder(lineNumber, null, objectMapper.readValue(line, OrderRequest.class), null);
+        } catch (JsonProcessingException e) {
+            return new ImportedOrder(lineNumber, null, null, "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+    
+    private ImportedOrder nextCsv() throws IOException {
+        if (pendingRow == null) {
+            return null;
+        }
+        
+        int row = pendingRowLine;
+        String reference = pendingRow[0].trim();
+        OrderRequest request = new OrderRequest(null, null, new ArrayList<>(), null, null);
+        String error = null;
+        
+        while (pendingRow != null && pendingRow[0].trim().equals(reference)) {
+            if (error == null) {
+                error = applyCsvRow(request, pendingRow);
+            }
+            pendingRow = nextCsvRow();
+            pendingRowLine = lineNumber;
+        }
+        
+        return new ImportedOrder(row, reference, error == null ? request : null, error);
+    }
+    
+    private String applyCsvRow(OrderRequest request, String[] columns) {
+        if (columns.length < 5) {
+            return "Line " + pendingRowLine + ": expected columns " + CSV_HEADER;
+        }
+        try {
+            Long customerId = Long.valueOf(columns[1].trim());
+            Long warehouseId = Long.valueOf(columns[2].trim());
+            if (request.getCustomerId() == null) {
+                request.setCustomerId(customerId);
+                request.setWarehouseId(warehouseId);
+            } else if (!Objects.equals(request.getCustomerId(), customerId)
+                    || !Objects.equals(request.getWarehouseId(), warehouseId)) {
+                return "All rows of an order must share customerId and warehouseId";
+            }
+            request.getItems().add(new OrderItemRequest(
+                    Long.valueOf(columns[3].trim()), Integer.valueOf(columns[4].trim())));
+        } catch (NumberFormatException e) {
+            return "Invalid number: " + e.getMessage();
+        }
+        if (columns.length > 5 && !columns[5].isBlank()) {
+            request.setNotes(columns[5].trim());
+        }
+        return null;
+    }
+    
+    // Notes is the last column, so it may contain commas
+    private String[] nextCsvRow() throws IOException {
+        String line = nextLine();
+        return line == null ? null : line.split(",", 6);
+    }
+    
+    private String nextLine() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            lineNumber++;
+        } while (line != null && line.isBlank());
+        return line;
+    }
+    
+    @Getter
+    @AllArgsConstructor
+    static class ImportedOrder {
+        private final int row;
+        private final String reference;
+        private final OrderRequest request;
+        private final String error;
+    }
+}
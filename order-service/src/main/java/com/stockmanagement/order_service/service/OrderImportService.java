@@ -0,0 +1,247 @@
+package com.stockmanagement.order_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockmanagement.order_service.client.InventoryClient;
+import com.stockmanagement.order_service.client.ProductClient;
+import com.stockmanagement.order_service.dto.OrderImportResult;
+import com.stockmanagement.order_service.dto.OrderImportStatus;
+import com.stockmanagement.order_service.dto.OrderItemRequest;
+import com.stockmanagement.order_service.dto.OrderRequest;
+import com.stockmanagement.order_service.dto.ProductDto;
+import com.stockmanagement.order_service.dto.StockReservationRequest;
+import com.stockmanagement.order_service.entity.Order;
+import com.stockmanagement.order_service.entity.OrderStatus;
+import com.stockmanagement.order_service.metrics.OrderFailureReason;
+import com.stockmanagement.order_service.metrics.OrderMetrics;
+import com.stockmanagement.order_service.repository.OrderRepository;
+import com.stockmanagement.order_service.service.OrderImportReader.ImportedOrder;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class OrderImportService {
+    
+    private static final int PRODUCT_LOOKUP_BATCH_SIZE = 500;
+    
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final ProductClient productClient;
+    private final InventoryClient inventoryClient;
+    private final OrderMetrics orderMetrics;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${order.import.chunk-size:500}")
+    private int chunkSize;
+    
+    public OrderImportService(OrderService orderService,
+                              OrderRepository orderRepository,
+                              ProductClient productClient,
+                              InventoryClient inventoryClient,
+                              OrderMetrics orderMetrics,
+                              ObjectMapper objectMapper,
+                              Validator validator,
+                              PlatformTransactionManager transactionManager) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.productClient = productClient;
+        this.inventoryClient = inventoryClient;
+        this.orderMetrics = orderMetrics;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    // Only one chunk of orders is held at a time; its results are written and flushed before the next is read
+    public void importOrders(InputStream input, boolean csv, OutputStream output) throws IOException {
+        OrderImportReader reader = csv
+                ? OrderImportReader.csv(input)
+                : OrderImportReader.ndjson(input, objectMapper);
+        
+        List<ImportedOrder> chunk = new ArrayList<>(chunkSize);
+        int created = 0;
+        int total = 0;
+        ImportedOrder next;
+        while ((next = reader.next()) != null) {
+            chunk.add(next);
+            if (chunk.size() == chunkSize) {
+                created += processChunk(chunk, output);
+                total += chunk.size();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            created += processChunk(chunk, output);
+            total += chunk.size();
+        }
+        
+        output.flush();
+        log.info("Order import finished: {} of {} orders created", created, total);
+    }
+    
+    private int processChunk(List<ImportedOrder> chunk, OutputStream output) throws IOException {
+        OrderImportResult[] results = new OrderImportResult[chunk.size()];
+        
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            ImportedOrder imported = chunk.get(i);
+            String error = imported.getError() != null ? imported.getError() : validate(imported.getRequest());
+            if (error != null) {
+                results[i] = reject(imported, OrderFailureReason.INVALID_REQUEST, error);
+            } else {
+                valid.add(i);
+            }
+        }
+        
+        Map<Long, ProductDto> products = fetchProducts(valid.stream().map(chunk::get).collect(Collectors.toList()));
+        List<Integer> priced = new ArrayList<>();
+        List<Order> orders = new ArrayList<>();
+        for (Integer i : valid) {
+            ImportedOrder imported = chunk.get(i);
+            Long missing = imported.getRequest().getItems().stream()
+                    .map(OrderItemRequest::getProductId)
+                    .filter(productId -> !products.containsKey(productId))
+                    .findFirst()
+                    .orElse(null);
+            if (missing != null) {
+                results[i] = reject(imported, OrderFailureReason.PRODUCT_NOT_FOUND, "Product not found: " + missing);
+            } else {
+                priced.add(i);
+                orders.add(orderService.buildOrder(imported.getRequest(), products));
+            }
+        }
+        
+        List<Integer> reservedRows = new ArrayList<>();
+        List<Order> reservedOrders = new ArrayList<>();
+        List<Boolean> reserved = reserve(orders);
+        for (int j = 0; j < orders.size(); j++) {
+            int i = priced.get(j);
+            if (Boolean.TRUE.equals(reserved.get(j))) {
+                Order order = orders.get(j);
+                order.setStatus(OrderStatus.CONFIRMED);
+                reservedRows.add(i);
+                reservedOrders.add(order);
+            } else {
+                results[i] = reject(chunk.get(i), OrderFailureReason.INSUFFICIENT_STOCK, "Failed to reserve inventory for order");
+            }
+        }
+        
+        int created = 0;
+        String persistError = persist(reservedOrders);
+        for (int j = 0; j < reservedOrders.size(); j++) {
+            int i = reservedRows.get(j);
+            ImportedOrder imported = chunk.get(i);
+            Order order = reservedOrders.get(j);
+            if (persistError == null) {
+                orderMetrics.incrementOrderCreated();
+                results[i] = new OrderImportResult(imported.getRow(), imported.getReference(),
+                        OrderImportStatus.CREATED, order.getId(), order.getOrderNumber(), null);
+                created++;
+            } else {
+                results[i] = reject(imported, OrderFailureReason.PERSISTENCE_ERROR, persistError);
+            }
+        }
+        
+        for (OrderImportResult result : results) {
+            output.write(objectMapper.writeValueAsBytes(result));
+            output.write('\n');
+        }
+        output.flush();
+        return created;
+    }
+    
+    private String validate(OrderRequest request) {
+        Set<ConstraintViolation<OrderRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+    
+    private Map<Long, ProductDto> fetchProducts(List<ImportedOrder> orders) {
+        List<Long> productIds = new ArrayList<>(orders.stream()
+                .flatMap(imported -> imported.getRequest().getItems().stream())
+                .map(OrderItemRequest::getProductId)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+        
+        Map<Long, ProductDto> products = new HashMap<>();
+        for (int from = 0; from < productIds.size(); from += PRODUCT_LOOKUP_BATCH_SIZE) {
+            List<Long> batch = productIds.subList(from, Math.min(from + PRODUCT_LOOKUP_BATCH_SIZE, productIds.size()));
+            productClient.getProductsByIds(batch).stream()
+                    .filter(product -> product != null && product.getId() != null)
+                    .forEach(product -> products.putIfAbsent(product.getId(), product));
+        }
+        return products;
+    }
+    
+    private List<Boolean> reserve(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        List<Boolean> reserved = inventoryClient.reserveStockBulk(toReservationRequests(orders));
+        if (reserved == null || reserved.size() != orders.size()) {
+            log.error("Bulk reservation returned {} results for {} orders", reserved == null ? null : reserved.size(), orders.size());
+            return Collections.nCopies(orders.size(), false);
+        }
+        return reserved;
+    }
+    
+    // Orders go out as one JDBC batch; if the chunk cannot be stored its reservations are handed back
+    private String persist(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return null;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                orderRepository.saveAll(orders);
+                orderRepository.flush();
+                orders.forEach(orderService::recordConfirmation);
+            });
+            return null;
+        } catch (RuntimeException e) {
+            log.error("Failed to persist imported orders, releasing {} reservations", orders.size(), e);
+            try {
+                inventoryClient.releaseStockBulk(toReservationRequests(orders));
+            } catch (Exception releaseError) {
+                log.error("Failed to release reservations for imported orders", releaseError);
+            }
+            return "Failed to persist order";
+        }
+    }
+    
+    private List<StockReservationRequest> toReservationRequests(List<Order> orders) {
+        return orders.stream()
+                .map(orderService::toReservationRequest)
+                .collect(Collectors.toList());
+    }
+    
+    private OrderImportResult reject(ImportedOrder imported, OrderFailureReason reason, String message) {
+        int itemCount = imported.getRequest() != null && imported.getRequest().getItems() != null
+                ? imported.getRequest().getItems().size()
+                : 0;
+        orderMetrics.incrementOrderFailed(reason, itemCount);
+        return new OrderImportResult(imported.getRow(), imported.getReference(),
+                OrderImportStatus.REJECTED, null, null, message);
+    }
+}
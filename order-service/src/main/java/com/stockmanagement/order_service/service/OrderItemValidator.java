@@ -0,0 +1,154 @@
+package com.stockmanagement.order_service.service;
+
+import com.stockmanagement.order_service.client.InventoryClient;
+import com.stockmanagement.order_service.client.ProductClient;
+import com.stockmanagement.order_service.dto.InventoryDto;
+import com.stockmanagement.order_service.dto.OrderItemRequest;
+import com.stockmanagement.order_service.dto.OrderRequest;
+import com.stockmanagement.order_service.dto.ProductDto;
+import com.stockmanagement.order_service.exception.InsufficientStockException;
+import com.stockmanagement.order_service.exception.OrderValidationTimeoutException;
+import com.stockmanagement.order_service.exception.ProductNotFoundException;
+import com.stockmanagement.order_service.metrics.OrderMetrics;
+import com.stockmanagement.order_service.metrics.OrderStage;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderItemValidator {
+    
+    private final ProductClient productClient;
+    private final InventoryClient inventoryClient;
+    private final OrderMetrics orderMetrics;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    
+    @Value("${order.validation.mode:SEQUENTIAL}")
+    private ValidationMode mode;
+    
+    @Value("${order.validation.timeout-ms:3000}")
+    private long timeoutMs;
+    
+    public Map<Long, ProductDto> validate(OrderRequest request) {
+        Timer.Sample sample = orderMetrics.startTimer();
+        try {
+            return mode == ValidationMode.CONCURRENT
+                    ? validateConcurrently(request)
+                    : validateSequentially(request);
+        } finally {
+            orderMetrics.recordValidationTime(sample, mode);
+        }
+    }
+    
+    private Map<Long, ProductDto> validateSequentially(OrderRequest request) {
+        int itemCount = request.getItems().size();
+        Map<Long, ProductDto> products = orderMetrics.stageTimer(OrderStage.PRODUCT_FETCH, itemCount)
+                .record(() -> fetchProducts(request.getItems()));
+        
+        orderMetrics.stageTimer(OrderStage.INVENTORY_CHECK, itemCount).record(() -> {
+            for (OrderItemRequest item : request.getItems()) {
+                checkStock(item, request.getWarehouseId());
+            }
+        });
+        
+        return products;
+    }
+    
+    // Fails fast: the first lookup that throws cancels every sibling still in flight
+    private Map<Long, ProductDto> validateConcurrently(OrderRequest request) {
+        CompletionService<Object> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<Object>> tasks = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        
+        int itemCount = request.getItems().size();
+        Timer productTimer = orderMetrics.stageTimer(OrderStage.PRODUCT_FETCH, itemCount);
+        Timer stockTimer = orderMetrics.stageTimer(OrderStage.INVENTORY_CHECK, itemCount);
+        
+        // Stock lookups overlap here, so the inventory stage is recorded per line rather than per order
+        Future<Object> productTask = completionService.submit(() -> productTimer.record(() -> fetchProducts(request.getItems())));
+        tasks.add(productTask);
+        for (OrderItemRequest item : request.getItems()) {
+            tasks.add(completionService.submit(() -> stockTimer.record(() -> checkStock(item, request.getWarehouseId()))));
+        }
+        
+        try {
+            for (int i = 0; i < tasks.size(); i++) {
+                Future<Object> completed = completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (completed == null) {
+                    throw new OrderValidationTimeoutException(
+                            "Order validation did not complete within " + timeoutMs + " ms");
+                }
+                completed.get();
+            }
+            
+            @SuppressWarnings("unchecked")
+            Map<Long, ProductDto> products = (Map<Long, ProductDto>) productTask.get();
+            return products;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Order validation failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Order validation interrupted", e);
+        } finally {
+            tasks.forEach(task -> task.cancel(true));
+        }
+    }
+    
+    private Map<Long, ProductDto> fetchProducts(List<OrderItemRequest> items) {
+        List<Long> productIds = items.stream()
+                .map(OrderItemRequest::getProductId)
+                .distinct()
+                .collect(Collectors.toList());
+        
+        Map<Long, ProductDto> products = productClient.getProductsByIds(productIds).stream()
+                .filter(product -> product != null && product.getId() != null)
+                .collect(Collectors.toMap(ProductDto::getId, Function.identity(), (first, second) -> first));
+        
+        for (Long productId : productIds) {
+            if (!products.containsKey(productId)) {
+                throw new ProductNotFoundException("Product not found: " + productId);
+            }
+        }
+        
+        return products;
+    }
+    
+    private InventoryDto checkStock(OrderItemRequest item, Long warehouseId) {
+        InventoryDto inventory = inventoryClient.getInventory(item.getProductId(), warehouseId);
+        
+        if (inventory.getAvailableQuantity() < item.getQuantity()) {
+            throw new InsufficientStockException(
+                    "Insufficient stock for product: " + item.getProductId() +
+                    ". Available: " + inventory.getAvailableQuantity() +
+                    ", Required: " + item.getQuantity()
+            );
+        }
+        
+        return inventory;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
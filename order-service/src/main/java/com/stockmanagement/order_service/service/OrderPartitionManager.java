@@ -0,0 +1,86 @@
+package com.stockmanagement.order_service.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+// Keeps monthly partitions of the orders and order_items tables (see db/orders-partitioning.sql) created ahead of
+// time and drops a month from both once the archiver has emptied it
+@Component
+@ConditionalOnProperty(name = "order.partitioning.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class OrderPartitionManager {
+    
+    private static final List<String> PARTITIONED_TABLES = List.of("orders", "order_items");
+    private static final String PARTITION_PREFIX = "orders_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${order.partitioning.months-ahead:3}")
+    private int monthsAhead;
+    
+    @Scheduled(initialDelay = 0, fixedDelayString = "${order.partitioning.check-interval-ms:3600000}")
+    public void ensurePartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            for (String table : PARTITIONED_TABLES) {
+                try {
+                    jdbcTemplate.execute(String.format(
+                            "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                            partitionName(table, month), table, month.atDay(1), month.plusMonths(1).atDay(1)));
+                } catch (Exception e) {
+                    log.error("Failed to create {} partition for {}", table, month, e);
+                }
+            }
+        }
+    }
+    
+    // Only months entirely before the cutoff are considered, and only when no order or item row is left in them
+    public void dropEmptyPartitionsBefore(YearMonth cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "WHERE i.inhparent = 'orders'::regclass AND c.relname LIKE '" + PARTITION_PREFIX + "%'",
+                String.class);
+        
+        for (String partition : partitions) {
+            YearMonth month = parseMonth(partition);
+            if (month == null || !month.isBefore(cutoff)) {
+                continue;
+            }
+            // Both tables are partitioned month by month together, so every orders partition has its items twin
+            String itemPartition = partitionName("order_items", month);
+            Boolean empty = jdbcTemplate.queryForObject(
+                    "SELECT NOT EXISTS (SELECT 1 FROM " + partition + ") AND NOT EXISTS (SELECT 1 FROM " + itemPartition + ")",
+                    Boolean.class);
+            if (Boolean.TRUE.equals(empty)) {
+                jdbcTemplate.execute("ALTER TABLE order_items DETACH PARTITION " + itemPartition);
+                jdbcTemplate.execute("DROP TABLE " + itemPartition);
+                jdbcTemplate.execute("ALTER TABLE orders DETACH PARTITION " + partition);
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                log.info("Dropped archived partitions {} and {}", partition, itemPartition);
+            }
+        }
+    }
+    
+    private String partitionName(String table, YearMonth month) {
+        return table + "_p" + month.format(PARTITION_SUFFIX);
+    }
+    
+    private YearMonth parseMonth(String partition) {
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
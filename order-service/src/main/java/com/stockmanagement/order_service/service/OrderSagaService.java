@@ -0,0 +1,201 @@
+package com.stockmanagement.order_service.service;
+
+import com.stockmanagement.order_service.cache.OrderCacheHelper;
+import com.stockmanagement.order_service.dto.OrderRequest;
+import com.stockmanagement.order_service.dto.OrderResponse;
+import com.stockmanagement.order_service.dto.StockReservationRequest;
+import com.stockmanagement.order_service.entity.Order;
+import com.stockmanagement.order_service.entity.OrderSaga;
+import com.stockmanagement.order_service.entity.OrderStatus;
+import com.stockmanagement.order_service.entity.SagaState;
+import com.stockmanagement.order_service.event.StockCommand;
+import com.stockmanagement.order_service.event.StockCommandReply;
+import com.stockmanagement.order_service.event.StockCommandType;
+import com.stockmanagement.order_service.exception.OrderNotFoundException;
+import com.stockmanagement.order_service.metrics.OrderFailureReason;
+import com.stockmanagement.order_service.metrics.OrderMetrics;
+import com.stockmanagement.order_service.publisher.OrderEventPublisher;
+import com.stockmanagement.order_service.repository.OrderRepository;
+import com.stockmanagement.order_service.repository.OrderSagaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+// Drives reserve -> confirm against inventory-service through messages; every step has a deadline and an
+// expired step releases whatever inventory may hold. Inventory also expires its own holds, so stock is
+// never held longer than order.saga.hold-seconds even if this service is down.
+@Service
+@Slf4j
+public class OrderSagaService {
+    
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final OrderSagaRepository orderSagaRepository;
+    private final OrderEventPublisher eventPublisher;
+    private final OrderCacheHelper orderCacheHelper;
+    private final OrderMetrics orderMetrics;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${order.saga.reserve-timeout-ms:30000}")
+    private long reserveTimeoutMs;
+    
+    @Value("${order.saga.confirm-timeout-ms:30000}")
+    private long confirmTimeoutMs;
+    
+    @Value("${order.saga.hold-seconds:300}")
+    private long holdSeconds;
+    
+    public OrderSagaService(OrderService orderService,
+                            OrderRepository orderRepository,
+                            OrderSagaRepository orderSagaRepository,
+                            OrderEventPublisher eventPublisher,
+                            OrderCacheHelper orderCacheHelper,
+                            OrderMetrics orderMetrics,
+                            PlatformTransactionManager transactionManager) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.orderSagaRepository = orderSagaRepository;
+        this.eventPublisher = eventPublisher;
+        this.orderCacheHelper = orderCacheHelper;
+        this.orderMetrics = orderMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    // Validation calls happen before the transaction; the PENDING order, its saga and the first command commit together
+    public OrderResponse submitOrder(OrderRequest request) {
+        Order order = orderService.buildOrder(request);
+        
+        return transactionTemplate.execute(status -> {
+            Order savedOrder = orderRepository.save(order);
+            
+            OrderSaga saga = new OrderSaga();
+            saga.setOrderId(savedOrder.getId());
+            saga.setState(SagaState.RESERVING);
+            saga.setDeadline(LocalDateTime.now().plusNanos(reserveTimeoutMs * 1_000_000));
+            orderSagaRepository.save(saga);
+            
+            StockReservationRequest reservation = orderService.toReservationRequest(savedOrder);
+            eventPublisher.sendStockCommand(new StockCommand(savedOrder.getId(), StockCommandType.RESERVE,
+                    reservation.getWarehouseId(), reservation.getItems(), holdSeconds));
+            
+            log.info("Order saga started: {}", savedOrder.getOrderNumber());
+            return orderService.mapToResponse(savedOrder);
+        });
+    }
+    
+    public void handleReply(StockCommandReply reply) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> applyReply(reply));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // The timeout sweep moved the saga first; its compensation wins and this reply is stale
+            log.warn("Saga for order {} changed concurrently, ignoring {} reply", reply.getOrderId(), reply.getType());
+        }
+    }
+    
+    private void applyReply(StockCommandReply reply) {
+        OrderSaga saga = orderSagaRepository.findById(reply.getOrderId()).orElse(null);
+        if (saga == null) {
+            log.warn("No saga for order {}, ignoring {} reply", reply.getOrderId(), reply.getType());
+            return;
+        }
+        
+        if (reply.getType() == StockCommandType.RESERVE && saga.getState() == SagaState.RESERVING) {
+            if (reply.isSuccess()) {
+                saga.setState(SagaState.CONFIRMING);
+                saga.setDeadline(LocalDateTime.now().plusNanos(confirmTimeoutMs * 1_000_000));
+                eventPublisher.sendStockCommand(command(saga.getOrderId(), StockCommandType.CONFIRM));
+            } else {
+                fail(saga, OrderFailureReason.INSUFFICIENT_STOCK, reply.getMessage(), false);
+            }
+        } else if (reply.getType() == StockCommandType.CONFIRM && saga.getState() == SagaState.CONFIRMING) {
+            if (reply.isSuccess()) {
+                complete(saga);
+            } else {
+                fail(saga, OrderFailureReason.INSUFFICIENT_STOCK, reply.getMessage(), true);
+            }
+        } else {
+            log.debug("Ignoring {} reply for saga {} in state {}", reply.getType(), saga.getOrderId(), saga.getState());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${order.saga.sweep-interval-ms:5000}")
+    public void compensateExpiredSagas() {
+        List<OrderSaga> expired = orderSagaRepository.findTop100ByStateInAndDeadlineBeforeOrderByDeadline(
+                EnumSet.of(SagaState.RESERVING, SagaState.CONFIRMING), LocalDateTime.now());
+        
+        for (OrderSaga candidate : expired) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    OrderSaga saga = orderSagaRepository.findById(candidate.getOrderId()).orElseThrow();
+                    if ((saga.getState() == SagaState.RESERVING || saga.getState() == SagaState.CONFIRMING)
+                            && saga.getDeadline().isBefore(LocalDateTime.now())) {
+                        fail(saga, OrderFailureReason.SAGA_TIMEOUT, "Timed out in state " + saga.getState(), true);
+                    }
+                });
+            } catch (ObjectOptimisticLockingFailureException e) {
+                log.debug("Saga for order {} advanced while compensating, skipping", candidate.getOrderId());
+            } catch (Exception e) {
+                log.error("Error compensating saga for order: {}", candidate.getOrderId(), e);
+            }
+        }
+    }
+    
+    // The order row is locked so a concurrent cancel either lands first and is seen here, or waits for the commit
+    private void complete(OrderSaga saga) {
+        Order order = orderRepository.findForUpdate(saga.getOrderId())
+                .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + saga.getOrderId()));
+        if (order.getStatus() != OrderStatus.PENDING) {
+            eventPublisher.sendStockCommand(command(saga.getOrderId(), StockCommandType.RELEASE));
+            saga.setState(SagaState.COMPENSATED);
+            saga.setFailureReason("Order was " + order.getStatus() + " before stock was confirmed");
+            orderSagaRepository.save(saga);
+            log.warn("Order saga released: {} was {} before confirmation", order.getOrderNumber(), order.getStatus());
+            return;
+        }
+        
+        order.setStatus(OrderStatus.CONFIRMED);
+        orderRepository.save(order);
+        orderService.recordConfirmation(order);
+        
+        saga.setState(SagaState.COMPLETED);
+        orderSagaRepository.save(saga);
+        
+        orderCacheHelper.evictOrder(order.getId(), order.getOrderNumber());
+        orderMetrics.incrementOrderCreated();
+        log.info("Order saga completed: {}", order.getOrderNumber());
+    }
+    
+    private void fail(OrderSaga saga, OrderFailureReason reason, String message, boolean release) {
+        Order order = loadOrder(saga.getOrderId());
+        order.setStatus(OrderStatus.FAILED);
+        orderRepository.save(order);
+        
+        if (release) {
+            eventPublisher.sendStockCommand(command(saga.getOrderId(), StockCommandType.RELEASE));
+        }
+        
+        saga.setState(SagaState.COMPENSATED);
+        saga.setFailureReason(message);
+        orderSagaRepository.save(saga);
+        
+        orderCacheHelper.evictOrder(order.getId(), order.getOrderNumber());
+        orderMetrics.incrementOrderFailed(reason, order.getItems().size());
+        log.warn("Order saga compensated: {} ({})", order.getOrderNumber(), message);
+    }
+    
+    private Order loadOrder(Long orderId) {
+        return orderRepository.findWithItemsById(orderId)
+                .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + orderId));
+    }
+    
+    private StockCommand command(Long orderId, StockCommandType type) {
+        return new StockCommand(orderId, type, null, null, null);
+    }
+}
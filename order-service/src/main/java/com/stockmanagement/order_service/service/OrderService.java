@@ -1,31 +1,54 @@
 package com.stockmanagement.order_service.service;
 
 
+import com.stockmanagement.order_service.cache.OrderCacheHelper;
 import com.stockmanagement.order_service.client.InventoryClient;
 import com.stockmanagement.order_service.client.ProductClient;
 import com.stockmanagement.order_service.dto.*;
 import com.stockmanagement.order_service.entity.Order;
 import com.stockmanagement.order_service.entity.OrderItem;
+import com.stockmanagement.order_service.entity.OrderSaga;
 import com.stockmanagement.order_service.entity.OrderStatus;
+import com.stockmanagement.order_service.entity.SagaState;
 import com.stockmanagement.order_service.event.OrderCancelledEvent;
 import com.stockmanagement.order_service.event.OrderConfirmedEvent;
 import com.stockmanagement.order_service.event.OrderCreatedEvent;
 import com.stockmanagement.order_service.event.OrderItemEvent;
+import com.stockmanagement.order_service.event.StockCommand;
+import com.stockmanagement.order_service.event.StockCommandType;
 import com.stockmanagement.order_service.exception.InsufficientStockException;
+import com.stockmanagement.order_service.generator.SnowflakeIdGenerator;
 import com.stockmanagement.order_service.exception.OrderNotFoundException;
-import com.stockmanagement.order_service.exception.ProductNotFoundException;
+import com.stockmanagement.order_service.metrics.OrderFailureReason;
 import com.stockmanagement.order_service.metrics.OrderMetrics;
+import com.stockmanagement.order_service.metrics.OrderStage;
+import com.stockmanagement.order_service.money.Money;
 import com.stockmanagement.order_service.publisher.OrderEventPublisher;
 import com.stockmanagement.order_service.repository.OrderRepository;
+import com.stockmanagement.order_service.repository.OrderSagaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.math.BigDecimal;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import io.micrometer.core.instrument.Timer;
 import io.micrometer.tracing.Tracer;
 
 @Service
@@ -33,17 +56,176 @@ import io.micrometer.tracing.Tracer;
 @Slf4j
 public class OrderService {
     
+    private static final String ORDER_NUMBER_PREFIX = "ORD-";
+    // Matches the @BatchSize on Order.items so each export page loads its items in one query
+    private static final int EXPORT_PAGE_SIZE = 100;
+    private static final Set<OrderStatus> OPEN_STATUSES =
+            EnumSet.of(OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.PROCESSING);
+    private static final Set<OrderStatus> RESERVED_STATUSES = EnumSet.of(OrderStatus.CONFIRMED, OrderStatus.PROCESSING);
+    
     private final OrderRepository orderRepository;
+    private final OrderSagaRepository orderSagaRepository;
     private final ProductClient productClient;
     private final InventoryClient inventoryClient;
     private final OrderEventPublisher eventPublisher;
-    //private final OrderMetrics orderMetrics;
+    private final OrderItemValidator orderItemValidator;
+    private final SnowflakeIdGenerator idGenerator;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final OrderCacheHelper orderCacheHelper;
+    private final OrderMetrics orderMetrics;
+    private final SalesRollupService salesRollupService;
+    private final OrderArchiveStore orderArchiveStore;
+    private final QuoteService quoteService;
     //private final Tracer tracer;
     
+    @Value("${order.pagination.default-page-size:50}")
+    private int defaultPageSize;
+    
+    @Value("${order.pagination.max-page-size:500}")
+    private int maxPageSize;
+    
+    @Value("${order.dashboard.default-window-hours:24}")
+    private long defaultWindowHours;
+    
+    @Value("${order.pricing.currency:USD}")
+    private Currency currency;
+    
+    @Value("${order.product-lookup.default-window-days:90}")
+    private long productLookupWindowDays;
+    
+    // Stock is reserved before anything is written, so the order is inserted once with its final status
     @Transactional
     public OrderResponse createOrder(OrderRequest request) {
         log.info("Creating order for customer: {}", request.getCustomerId());
         
+        int itemCount = request.getItems().size();
+        Timer.Sample sample = orderMetrics.startTimer();
+        try {
+            Order quotedOrder = buildQuotedOrder(request);
+            Order order = quotedOrder != null ? quotedOrder : buildReservedOrder(request);
+            
+            order.setStatus(OrderStatus.CONFIRMED);
+            Order confirmedOrder = orderMetrics.stageTimer(OrderStage.PERSISTENCE, itemCount)
+                    .record(() -> orderRepository.saveAndFlush(order));
+            
+            orderMetrics.stageTimer(OrderStage.EVENT_PUBLISH, itemCount).record(() -> recordConfirmation(confirmedOrder));
+            
+            orderMetrics.incrementOrderCreated();
+            log.info("Order created successfully: {}", confirmedOrder.getOrderNumber());
+            return mapToResponse(confirmedOrder);
+        } catch (RuntimeException e) {
+            orderMetrics.incrementOrderFailed(OrderFailureReason.from(e), itemCount);
+            throw e;
+        } finally {
+            orderMetrics.recordProcessingTime(sample, itemCount);
+        }
+    }
+    
+    private Order buildReservedOrder(OrderRequest request) {
+        Order order = buildOrder(request);
+        if (!reserveInventory(order)) {
+            throw new InsufficientStockException("Failed to reserve inventory for order");
+        }
+        releaseReservationOnRollback(order);
+        return order;
+    }
+    
+    // A valid quote already carries priced products and held stock, so only the hold confirmation goes remote
+    private Order buildQuotedOrder(OrderRequest request) {
+        QuoteService.RedeemedQuote quote = quoteService.redeem(request).orElse(null);
+        if (quote == null || !quoteService.confirmHold(quote, request.getItems().size())) {
+            return null;
+        }
+        
+        Long holdId = quote.getHoldId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    quoteService.releaseHold(holdId);
+                }
+            }
+        });
+        return buildOrder(request, quote.getProducts());
+    }
+    
+    // Async mode: validation runs outside any transaction, so no DB connection is held across the remote calls
+    public OrderResponse acceptOrder(OrderRequest request) {
+        log.info("Accepting order for customer: {}", request.getCustomerId());
+        
+        Order order = buildOrder(request);
+        Order savedOrder = orderMetrics.stageTimer(OrderStage.PERSISTENCE, order.getItems().size())
+                .record(() -> orderRepository.save(order));
+        
+        log.info("Order accepted for processing: {}", savedOrder.getOrderNumber());
+        return mapToResponse(savedOrder);
+    }
+    
+    @Transactional
+    public void processAcceptedOrder(Long orderId) {
+        Order order = orderRepository.findForUpdate(orderId)
+                .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + orderId));
+        
+        if (order.getStatus() != OrderStatus.PENDING) {
+            log.warn("Skipping order {} in status {}", order.getOrderNumber(), order.getStatus());
+            return;
+        }
+        
+        int itemCount = order.getItems().size();
+        try {
+            if (reserveInventory(order)) {
+                releaseReservationOnRollback(order);
+                order.setStatus(OrderStatus.CONFIRMED);
+                orderMetrics.stageTimer(OrderStage.PERSISTENCE, itemCount).record(() -> orderRepository.saveAndFlush(order));
+                orderMetrics.stageTimer(OrderStage.EVENT_PUBLISH, itemCount).record(() -> recordConfirmation(order));
+                orderMetrics.incrementOrderCreated();
+                log.info("Order confirmed: {}", order.getOrderNumber());
+            } else {
+                order.setStatus(OrderStatus.FAILED);
+                orderMetrics.stageTimer(OrderStage.PERSISTENCE, itemCount).record(() -> orderRepository.saveAndFlush(order));
+                orderMetrics.incrementOrderFailed(OrderFailureReason.INSUFFICIENT_STOCK, itemCount);
+                log.warn("Order failed, inventory could not be reserved: {}", order.getOrderNumber());
+            }
+        } catch (RuntimeException e) {
+            orderMetrics.incrementOrderFailed(OrderFailureReason.from(e), itemCount);
+            throw e;
+        }
+        orderCacheHelper.evictOrder(order.getId(), order.getOrderNumber());
+    }
+    
+    // Called after processing threw; the failed attempt has rolled back, including any inventory it reserved
+    @Transactional
+    public void failAcceptedOrder(Long orderId) {
+        Order order = orderRepository.findForUpdate(orderId)
+                .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + orderId));
+        if (order.getStatus() != OrderStatus.PENDING) {
+            return;
+        }
+        order.setStatus(OrderStatus.FAILED);
+        orderRepository.save(order);
+        orderCacheHelper.evictOrder(order.getId(), order.getOrderNumber());
+        log.warn("Order failed after a processing error: {}", order.getOrderNumber());
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Long> findStalledAsyncOrderIds(Duration stalledAfter, int limit) {
+        return orderRepository.findStalledAsyncOrderIds(OrderStatus.PENDING,
+                LocalDateTime.now().minus(stalledAfter), Limit.of(limit));
+    }
+    
+    // PENDING orders are still being processed by the async workers and are polled for their outcome
+    private void cacheIfSettled(OrderResponse response) {
+        if (response.getStatus() != OrderStatus.PENDING) {
+            orderCacheHelper.cacheOrder(response);
+        }
+    }
+    
+    Order buildOrder(OrderRequest request) {
+        return buildOrder(request, orderItemValidator.validate(request));
+    }
+    
+    Order buildOrder(OrderRequest request, Map<Long, ProductDto> products) {
         Order order = new Order();
         order.setOrderNumber(generateOrderNumber());
         order.setCustomerId(request.getCustomerId());
@@ -51,108 +233,100 @@ public class OrderService {
         order.setStatus(OrderStatus.PENDING);
         order.setNotes(request.getNotes());
         
-        BigDecimal totalAmount = BigDecimal.ZERO;
+        Money totalAmount = Money.zero(currency);
         
         for (OrderItemRequest itemRequest : request.getItems()) {
-            ProductDto product = productClient.getProductById(itemRequest.getProductId());
-            
-            if (product == null || product.getId() == null) {
-                throw new ProductNotFoundException("Product not found: " + itemRequest.getProductId());
-            }
-            
-            InventoryDto inventory = inventoryClient.getInventory(
-                    itemRequest.getProductId(), 
-                    request.getWarehouseId()
-            );
-            
-            if (inventory.getAvailableQuantity() < itemRequest.getQuantity()) {
-                throw new InsufficientStockException(
-                        "Insufficient stock for product: " + product.getName() + 
-                        ". Available: " + inventory.getAvailableQuantity() + 
-                        ", Required: " + itemRequest.getQuantity()
-                );
-            }
+            ProductDto product = products.get(itemRequest.getProductId());
+            Money unitPrice = Money.of(product.getPrice(), currency);
+            Money linePrice = unitPrice.times(itemRequest.getQuantity());
             
             OrderItem orderItem = new OrderItem();
             orderItem.setProductId(product.getId());
             orderItem.setProductName(product.getName());
             orderItem.setProductSku(product.getSku());
             orderItem.setQuantity(itemRequest.getQuantity());
-            orderItem.setUnitPrice(product.getPrice());
-            orderItem.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity())));
+            orderItem.setUnitPrice(unitPrice.toBigDecimal());
+            orderItem.setTotalPrice(linePrice.toBigDecimal());
             
             order.addItem(orderItem);
-            totalAmount = totalAmount.add(orderItem.getTotalPrice());
-        }
-        
-        order.setTotalAmount(totalAmount);
-        Order savedOrder = orderRepository.save(order);
-        
-        boolean reservationSuccess = reserveInventory(savedOrder);
-        
-        if (!reservationSuccess) {
-            order.setStatus(OrderStatus.FAILED);
-            orderRepository.save(order);
-            throw new InsufficientStockException("Failed to reserve inventory for order");
+            totalAmount = totalAmount.plus(linePrice);
         }
         
-        order.setStatus(OrderStatus.CONFIRMED);
-        Order confirmedOrder = orderRepository.save(order);
-        
-        publishOrderCreatedEvent(confirmedOrder);
-        publishOrderConfirmedEvent(confirmedOrder);
-        
-        log.info("Order created successfully: {}", confirmedOrder.getOrderNumber());
-        return mapToResponse(confirmedOrder);
+        order.setTotalAmount(totalAmount.toBigDecimal());
+        return order;
     }
     
     private boolean reserveInventory(Order order) {
         log.info("Reserving inventory for order: {}", order.getOrderNumber());
         
-        for (OrderItem item : order.getItems()) {
-            Boolean reserved = inventoryClient.reserveStock(
-                    item.getProductId(),
-                    order.getWarehouseId(),
-                    item.getQuantity()
-            );
-            
-            if (!reserved) {
-                log.error("Failed to reserve stock for product: {}", item.getProductId());
-                rollbackInventoryReservation(order);
-                return false;
-            }
+        Boolean reserved = orderMetrics.stageTimer(OrderStage.RESERVATION, order.getItems().size())
+                .record(() -> inventoryClient.reserveStockBatch(toReservationRequest(order)));
+        
+        if (!Boolean.TRUE.equals(reserved)) {
+            log.error("Failed to reserve stock for order: {}", order.getOrderNumber());
+            return false;
         }
         
         return true;
     }
     
+    private void releaseReservationOnRollback(Order order) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    rollbackInventoryReservation(order);
+                }
+            }
+        });
+    }
+    
     private void rollbackInventoryReservation(Order order) {
         log.info("Rolling back inventory reservation for order: {}", order.getOrderNumber());
         
-        for (OrderItem item : order.getItems()) {
-            try {
-                inventoryClient.releaseStock(
-                        item.getProductId(),
-                        order.getWarehouseId(),
-                        item.getQuantity()
-                );
-            } catch (Exception e) {
-                log.error("Failed to release stock during rollback for product: {}", item.getProductId(), e);
-               // orderMetrics.incrementOrderFailed();
-            }
+        int itemCount = order.getItems().size();
+        try {
+            orderMetrics.stageTimer(OrderStage.ROLLBACK, itemCount)
+                    .record(() -> inventoryClient.releaseStockBatch(toReservationRequest(order)));
+        } catch (Exception e) {
+            log.error("Failed to release stock during rollback for order: {}", order.getOrderNumber(), e);
+            orderMetrics.incrementOrderFailed(OrderFailureReason.RELEASE_FAILED, itemCount);
         }
     }
     
+    StockReservationRequest toReservationRequest(Order order) {
+        List<StockReservationItem> items = order.getItems().stream()
+                .map(item -> new StockReservationItem(item.getProductId(), item.getQuantity()))
+                .collect(Collectors.toList());
+        return new StockReservationRequest(order.getWarehouseId(), items);
+    }
+    
     public OrderResponse getOrderById(Long id) {
-        Order order = orderRepository.findById(id)
+        OrderResponse cached = orderCacheHelper.getOrder(id);
+        if (cached != null) {
+            return cached;
+        }
+        
+        Order order = orderRepository.findWithItemsById(id)
                 .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + id));
-        return mapToResponse(order);
+        OrderResponse response = mapToResponse(order);
+        cacheIfSettled(response);
+        return response;
     }
     
     public OrderResponse getOrderByNumber(String orderNumber) {
-        Order order = orderRepository.findByOrderNumber(orderNumber)
+        OrderResponse cached = orderCacheHelper.getOrderByNumber(orderNumber);
+        if (cached != null) {
+            return cached;
+        }
+        
+        // Orders moved to cold storage by the archiver are still resolvable by number
+        OrderResponse response = orderRepository.findByOrderNumber(orderNumber)
+                .map(this::mapToResponse)
+                .or(() -> orderArchiveStore.findByOrderNumber(orderNumber))
                 .orElseThrow(() -> new OrderNotFoundException("Order not found with number: " + orderNumber));
-        return mapToResponse(order);
+        cacheIfSettled(response);
+        return response;
     }
     
     public List<OrderResponse> getOrdersByCustomer(Long customerId) {
@@ -162,42 +336,234 @@ public class OrderService {
     }
     
     public List<OrderResponse> getAllOrders() {
-        return orderRepository.findAll().stream()
+        return orderRepository.findAllWithItems().stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
+    public OrderPageResponse<OrderResponse> getOrdersPage(Long customerId, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        long beforeId = parseCursor(cursor);
+        Limit limit = Limit.of(pageSize + 1);
+        
+        List<Order> orders = customerId != null
+                ? orderRepository.findByCustomerIdAndIdLessThanOrderByIdDesc(customerId, beforeId, limit)
+                : orderRepository.findByIdLessThanOrderByIdDesc(beforeId, limit);
+        
+        boolean hasMore = orders.size() > pageSize;
+        List<Order> page = hasMore ? orders.subList(0, pageSize) : orders;
+        String nextCursor = hasMore ? String.valueOf(page.get(page.size() - 1).getId()) : null;
+        
+        List<OrderResponse> items = page.stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+        return new OrderPageResponse<>(items, nextCursor, hasMore);
+    }
+    
+    @Transactional(readOnly = true)
+    public OrderPageResponse<OrderSummaryResponse> getOrderSummariesByCustomer(Long customerId, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        List<OrderSummaryResponse> summaries = orderRepository.findSummariesByCustomerId(
+                customerId, parseCursor(cursor), Limit.of(pageSize + 1));
+        
+        boolean hasMore = summaries.size() > pageSize;
+        List<OrderSummaryResponse> page = hasMore ? summaries.subList(0, pageSize) : summaries;
+        String nextCursor = hasMore ? String.valueOf(page.get(page.size() - 1).getId()) : null;
+        return new OrderPageResponse<>(page, nextCursor, hasMore);
+    }
+    
+    // Window is [from, to); the cursor is "createdAt,id" of the last row of the previous page
+    @Transactional(readOnly = true)
+    public OrderPageResponse<OrderSummaryResponse> getOrdersByStatus(OrderStatus status, Long warehouseId,
+                                                                     LocalDateTime from, LocalDateTime to,
+                                                                     String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        LocalDateTime windowEnd = to != null ? to : LocalDateTime.now();
+        LocalDateTime windowStart = resolveWindowStart(from, windowEnd);
+        
+        LocalDateTime beforeCreatedAt = windowEnd;
+        long beforeId = Long.MIN_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = cursor.split(",", 2);
+            try {
+                beforeCreatedAt = LocalDateTime.parse(parts[0]);
+                beforeId = Long.parseLong(parts[1]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+        
+        Limit limit = Limit.of(pageSize + 1);
+        List<OrderSummaryResponse> summaries = warehouseId != null
+                ? orderRepository.findSummariesByStatusAndWarehouse(status, warehouseId, windowStart, beforeCreatedAt, beforeId, limit)
+                : orderRepository.findSummariesByStatus(status, windowStart, beforeCreatedAt, beforeId, limit);
+        
+        boolean hasMore = summaries.size() > pageSize;
+        List<OrderSummaryResponse> page = hasMore ? summaries.subList(0, pageSize) : summaries;
+        String nextCursor = null;
+        if (hasMore) {
+            OrderSummaryResponse last = page.get(page.size() - 1);
+            nextCursor = last.getCreatedAt() + "," + last.getId();
+        }
+        return new OrderPageResponse<>(page, nextCursor, hasMore);
+    }
+    
+    // Defaults to open orders over order.product-lookup.default-window-days; the cursor is the last order id
+    @Transactional(readOnly = true)
+    public OrderPageResponse<OrderSummaryResponse> getOrdersByProduct(Long productId, Set<OrderStatus> statuses,
+                                                                      LocalDateTime from, LocalDateTime to,
+                                                                      String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        Set<OrderStatus> filter = statuses == null || statuses.isEmpty() ? OPEN_STATUSES : statuses;
+        LocalDateTime windowEnd = to != null ? to : LocalDateTime.now();
+        LocalDateTime windowStart = from != null ? from : windowEnd.minusDays(productLookupWindowDays);
+        if (!windowStart.isBefore(windowEnd)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        long beforeId = parseCursor(cursor);
+        
+        List<OrderSummaryResponse> lines = orderRepository.findSummariesByProduct(
+                productId, filter, windowStart, windowEnd, beforeId, Limit.of(pageSize + 1));
+        
+        boolean hasMore = lines.size() > pageSize;
+        Map<Long, OrderSummaryResponse> page = new LinkedHashMap<>();
+        lines.stream()
+                .limit(pageSize)
+                .forEach(line -> page.putIfAbsent(line.getId(), line));
+        
+        List<OrderSummaryResponse> orders = new ArrayList<>(page.values());
+        String nextCursor = hasMore ? String.valueOf(orders.get(orders.size() - 1).getId()) : null;
+        return new OrderPageResponse<>(orders, nextCursor, hasMore);
+    }
+    
+    @Transactional(readOnly = true)
+    public long countOrdersByStatus(OrderStatus status, Long warehouseId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime windowEnd = to != null ? to : LocalDateTime.now();
+        LocalDateTime windowStart = resolveWindowStart(from, windowEnd);
+        return warehouseId != null
+                ? orderRepository.countByStatusAndWarehouseBetween(status, warehouseId, windowStart, windowEnd)
+                : orderRepository.countByStatusBetween(status, windowStart, windowEnd);
+    }
+    
+    private LocalDateTime resolveWindowStart(LocalDateTime from, LocalDateTime windowEnd) {
+        LocalDateTime windowStart = from != null ? from : windowEnd.minusHours(defaultWindowHours);
+        if (!windowStart.isBefore(windowEnd)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        return windowStart;
+    }
+    
+    // Walks keyset pages by ascending id, one query for the orders and one for their items per page; the persistence
+    // context is cleared after every page so memory stays flat
+    @Transactional(readOnly = true)
+    public void exportOrders(Long customerId, OutputStream outputStream) throws IOException {
+        long afterId = 0;
+        List<Order> page;
+        do {
+            page = customerId != null
+                    ? orderRepository.findByCustomerIdAndIdGreaterThanOrderById(customerId, afterId, Limit.of(EXPORT_PAGE_SIZE))
+                    : orderRepository.findByIdGreaterThanOrderById(afterId, Limit.of(EXPORT_PAGE_SIZE));
+            for (Order order : page) {
+                outputStream.write(objectMapper.writeValueAsBytes(mapToResponse(order)));
+                outputStream.write('\n');
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+            entityManager.clear();
+            outputStream.flush();
+        } while (page.size() == EXPORT_PAGE_SIZE);
+    }
+    
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1");
+        }
+        return Math.min(size, maxPageSize);
+    }
+    
+    private long parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+    
     @Transactional
     public OrderResponse updateOrderStatus(Long id, OrderStatus status) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findWithItemsById(id)
                 .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + id));
         
+        boolean wasCounted = SalesRollupService.isCounted(order.getStatus());
         order.setStatus(status);
         Order updatedOrder = orderRepository.save(order);
+        if (wasCounted != SalesRollupService.isCounted(status)) {
+            salesRollupService.recordOrder(order, wasCounted ? -1 : 1);
+        }
+        orderCacheHelper.evictOrder(order.getId(), order.getOrderNumber());
         
         log.info("Order {} status updated to {}", order.getOrderNumber(), status);
         return mapToResponse(updatedOrder);
     }
     
+    // Locks the order row so a saga reply or async worker settling it concurrently sees the cancellation
     @Transactional
     public void cancelOrder(Long id) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findForUpdate(id)
                 .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + id));
         
-        if (order.getStatus() == OrderStatus.SHIPPED || order.getStatus() == OrderStatus.DELIVERED) {
+        if (order.getStatus() == OrderStatus.SHIPPED || order.getStatus() == OrderStatus.DELIVERED
+                || order.getStatus() == OrderStatus.CANCELLED) {
             throw new IllegalStateException("Cannot cancel order in status: " + order.getStatus());
         }
         
-        rollbackInventoryReservation(order);
+        // PENDING async orders and FAILED orders hold no stock, so only confirmed orders go back to inventory
+        OrderSaga saga = orderSagaRepository.findById(order.getId()).orElse(null);
+        if (saga != null) {
+            compensateSaga(saga);
+        } else if (RESERVED_STATUSES.contains(order.getStatus())) {
+            rollbackInventoryReservation(order);
+        }
         
+        if (SalesRollupService.isCounted(order.getStatus())) {
+            salesRollupService.recordOrder(order, -1);
+        }
         order.setStatus(OrderStatus.CANCELLED);
         orderRepository.save(order);
+        orderCacheHelper.evictOrder(order.getId(), order.getOrderNumber());
         
         publishOrderCancelledEvent(order);
+        orderMetrics.incrementOrderCancelled();
         
         log.info("Order cancelled: {}", order.getOrderNumber());
     }
     
+    // Saga stock is tracked by inventory's reservation record, so it is released through the same command channel
+    private void compensateSaga(OrderSaga saga) {
+        if (saga.getState() == SagaState.COMPENSATED) {
+            return;
+        }
+        eventPublisher.sendStockCommand(new StockCommand(saga.getOrderId(), StockCommandType.RELEASE, null, null, null));
+        saga.setState(SagaState.COMPENSATED);
+        saga.setFailureReason("Order cancelled");
+        orderSagaRepository.save(saga);
+    }
+    
+    // Must run in the transaction that stores the CONFIRMED order so the rollups commit with it
+    void recordConfirmation(Order order) {
+        salesRollupService.recordOrder(order, 1);
+        publishOrderCreatedEvent(order);
+        publishOrderConfirmedEvent(order);
+    }
+    
     private void publishOrderCreatedEvent(Order order) {
         List<OrderItemEvent> itemEvents = order.getItems().stream()
                 .map(item -> new OrderItemEvent(
@@ -245,11 +611,10 @@ public class OrderService {
     }
     
     private String generateOrderNumber() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        return "ORD-" + timestamp;
+        return idGenerator.nextNumber(ORDER_NUMBER_PREFIX);
     }
     
-    private OrderResponse mapToResponse(Order order) {
+    OrderResponse mapToResponse(Order order) {
         List<OrderItemResponse> itemResponses = order.getItems().stream()
                 .map(item -> new OrderItemResponse(
                         item.getId(),
@@ -0,0 +1,227 @@
+package com.stockmanagement.order_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockmanagement.order_service.client.InventoryClient;
+import com.stockmanagement.order_service.dto.OrderItemRequest;
+import com.stockmanagement.order_service.dto.OrderItemResponse;
+import com.stockmanagement.order_service.dto.OrderRequest;
+import com.stockmanagement.order_service.dto.ProductDto;
+import com.stockmanagement.order_service.dto.QuoteResponse;
+import com.stockmanagement.order_service.dto.StockHoldRequest;
+import com.stockmanagement.order_service.dto.StockReservationItem;
+import com.stockmanagement.order_service.exception.InsufficientStockException;
+import com.stockmanagement.order_service.generator.SnowflakeIdGenerator;
+import com.stockmanagement.order_service.metrics.OrderMetrics;
+import com.stockmanagement.order_service.metrics.OrderStage;
+import com.stockmanagement.order_service.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// A quote is a stateless, HMAC-signed snapshot of a validated basket plus the id of a short inventory hold.
+// createOrder can trust the snapshot while it is valid, leaving one hold confirmation as its only remote call.
+@Service
+@Slf4j
+public class QuoteService {
+    
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    
+    private final OrderItemValidator orderItemValidator;
+    private final InventoryClient inventoryClient;
+    private final SnowflakeIdGenerator idGenerator;
+    private final ObjectMapper objectMapper;
+    private final OrderMetrics orderMetrics;
+    private final SecretKeySpec signingKey;
+    
+    @Value("${order.quote.ttl-seconds:300}")
+    private long ttlSeconds;
+    
+    // The inventory hold outlives the quote so a quote accepted at its last second still finds its stock
+    @Value("${order.quote.hold-grace-seconds:30}")
+    private long holdGraceSeconds;
+    
+    @Value("${order.pricing.currency:USD}")
+    private Currency currency;
+    
+    public QuoteService(OrderItemValidator orderItemValidator,
+                        InventoryClient inventoryClient,
+                        SnowflakeIdGenerator idGenerator,
+                        ObjectMapper objectMapper,
+                        OrderMetrics orderMetrics,
+                        @Value("${order.quote.secret:}") String secret) {
+        this.orderItemValidator = orderItemValidator;
+        this.inventoryClient = inventoryClient;
+        this.idGenerator = idGenerator;
+        this.objectMapper = objectMapper;
+        this.orderMetrics = orderMetrics;
+        
+        // Any instance may redeem a quote, so all of them must share the key
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("order.quote.secret must be set to a key shared by every instance");
+        }
+        this.signingKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+    }
+    
+    public QuoteResponse createQuote(OrderRequest request) {
+        Map<Long, ProductDto> products = orderItemValidator.validate(request);
+        
+        long holdId = idGenerator.nextId();
+        StockHoldRequest hold = new StockHoldRequest(holdId, request.getWarehouseId(),
+                toReservationItems(request.getItems()), ttlSeconds + holdGraceSeconds);
+        Boolean held = orderMetrics.stageTimer(OrderStage.RESERVATION, request.getItems().size())
+                .record(() -> inventoryClient.placeHold(hold));
+        if (!Boolean.TRUE.equals(held)) {
+            throw new InsufficientStockException("Stock could not be held for quote");
+        }
+        
+        Instant expiresAt = Instant.now().plusSeconds(ttlSeconds);
+        QuotePayload payload = new QuotePayload(holdId, request.getCustomerId(), request.getWarehouseId(),
+                expiresAt.toEpochMilli(), new ArrayList<>(products.values()), request.getItems());
+        
+        List<OrderItemResponse> lines = new ArrayList<>();
+        Money total = Money.zero(currency);
+        for (OrderItemRequest item : request.getItems()) {
+            ProductDto product = products.get(item.getProductId());
+            Money unitPrice = Money.of(product.getPrice(), currency);
+            Money linePrice = unitPrice.times(item.getQuantity());
+            lines.add(new OrderItemResponse(null, product.getId(), product.getName(), product.getSku(),
+                    item.getQuantity(), unitPrice.toBigDecimal(), linePrice.toBigDecimal()));
+            total = total.plus(linePrice);
+        }
+        
+        log.info("Quote issued for customer {} with hold {}", request.getCustomerId(), holdId);
+        return new QuoteResponse(sign(payload), expiresAt, request.getCustomerId(), request.getWarehouseId(),
+                lines, total.toBigDecimal());
+    }
+    
+    // Empty when the order must take the full validation path: no quote, an invalid or expired one, or a basket that
+    // changed since
+    public Optional<RedeemedQuote> redeem(OrderRequest request) {
+        if (request.getQuoteId() == null || request.getQuoteId().isBlank()) {
+            return Optional.empty();
+        }
+        
+        Optional<QuotePayload> verified = verify(request.getQuoteId());
+        if (verified.isEmpty()) {
+            return Optional.empty();
+        }
+        QuotePayload payload = verified.get();
+        if (payload.getExpiresAt() < System.currentTimeMillis()) {
+            orderMetrics.incrementQuoteRedemption("expired");
+            return Optional.empty();
+        }
+        if (!payload.getCustomerId().equals(request.getCustomerId())
+                || !payload.getWarehouseId().equals(request.getWarehouseId())
+                || !quantities(payload.getItems()).equals(quantities(request.getItems()))) {
+            orderMetrics.incrementQuoteRedemption("mismatch");
+            releaseHold(payload.getHoldId());
+            return Optional.empty();
+        }
+        
+        Map<Long, ProductDto> products = payload.getProducts().stream()
+                .collect(Collectors.toMap(ProductDto::getId, Function.identity()));
+        return Optional.of(new RedeemedQuote(payload.getHoldId(), products));
+    }
+    
+    // Turns the hold into a regular reservation; false when the hold is gone and stock has to be reserved again
+    public boolean confirmHold(RedeemedQuote quote, int itemCount) {
+        Boolean confirmed = orderMetrics.stageTimer(OrderStage.RESERVATION, itemCount)
+                .record(() -> inventoryClient.confirmHold(quote.getHoldId()));
+        boolean success = Boolean.TRUE.equals(confirmed);
+        orderMetrics.incrementQuoteRedemption(success ? "redeemed" : "hold_lost");
+        return success;
+    }
+    
+    public void releaseHold(Long holdId) {
+        try {
+            inventoryClient.releaseHold(holdId);
+        } catch (Exception e) {
+            log.error("Failed to release stock hold {}, it will expire on its own", holdId, e);
+        }
+    }
+    
+    private String sign(QuotePayload payload) {
+        try {
+            String body = ENCODER.encodeToString(objectMapper.writeValueAsBytes(payload));
+            return body + "." + ENCODER.encodeToString(mac(body));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to sign quote", e);
+        }
+    }
+    
+    // An untrusted payload cannot name its hold, which is left to expire on its own
+    private Optional<QuotePayload> verify(String quoteId) {
+        int separator = quoteId.indexOf('.');
+        try {
+            if (separator >= 0) {
+                String body = quoteId.substring(0, separator);
+                byte[] signature = DECODER.decode(quoteId.substring(separator + 1));
+                if (MessageDigest.isEqual(signature, mac(body))) {
+                    return Optional.of(objectMapper.readValue(DECODER.decode(body), QuotePayload.class));
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Malformed quote id", e);
+        }
+        orderMetrics.incrementQuoteRedemption("invalid");
+        log.warn("Ignoring an invalid quote, the order falls back to full validation");
+        return Optional.empty();
+    }
+    
+    private byte[] mac(String body) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+        mac.init(signingKey);
+        return mac.doFinal(body.getBytes(StandardCharsets.US_ASCII));
+    }
+    
+    private Map<Long, Integer> quantities(List<OrderItemRequest> items) {
+        return items.stream()
+                .collect(Collectors.toMap(OrderItemRequest::getProductId, OrderItemRequest::getQuantity,
+                        Integer::sum, TreeMap::new));
+    }
+    
+    private List<StockReservationItem> toReservationItems(List<OrderItemRequest> items) {
+        return items.stream()
+                .map(item -> new StockReservationItem(item.getProductId(), item.getQuantity()))
+                .collect(Collectors.toList());
+    }
+    
+    @Data
+    @AllArgsConstructor
+    public static class RedeemedQuote {
+        private Long holdId;
+        private Map<Long, ProductDto> products;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class QuotePayload {
+        private Long holdId;
+        private Long customerId;
+        private Long warehouseId;
+        private long expiresAt;
+        private List<ProductDto> products;
+        private List<OrderItemRequest> items;
+    }
+}
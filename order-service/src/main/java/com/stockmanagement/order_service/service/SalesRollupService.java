@@ -0,0 +1,145 @@
+package com.stockmanagement.order_service.service;
+
+import com.stockmanagement.order_service.dto.SalesRollupResponse;
+import com.stockmanagement.order_service.entity.Order;
+import com.stockmanagement.order_service.entity.OrderItem;
+import com.stockmanagement.order_service.entity.OrderStatus;
+import com.stockmanagement.order_service.entity.RollupGrain;
+import com.stockmanagement.order_service.entity.SalesRollup;
+import com.stockmanagement.order_service.entity.SalesRollupId;
+import com.stockmanagement.order_service.repository.SalesRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesRollupService {
+    
+    private static final Set<OrderStatus> COUNTED_STATUSES = EnumSet.of(
+            OrderStatus.CONFIRMED, OrderStatus.PROCESSING, OrderStatus.SHIPPED, OrderStatus.DELIVERED);
+    
+    private static final Comparator<SalesRollupId> KEY_ORDER = Comparator
+            .comparing(SalesRollupId::getGrain)
+            .thenComparing(SalesRollupId::getBucketStart)
+            .thenComparing(SalesRollupId::getWarehouseId)
+            .thenComparing(SalesRollupId::getProductId);
+    
+    private final SalesRollupRepository salesRollupRepository;
+    
+    @Value("${order.reports.max-buckets:1000}")
+    private int maxBuckets;
+    
+    public static boolean isCounted(OrderStatus status) {
+        return COUNTED_STATUSES.contains(status);
+    }
+    
+    // Applies +1/-1 of the order to its rollups; orders are bucketed by creation time so a later cancel undoes the same rows
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOrder(Order order, int sign) {
+        Map<SalesRollupId, SalesRollup> deltas = pendingDeltas();
+        for (RollupGrain grain : RollupGrain.values()) {
+            LocalDateTime bucketStart = grain.bucketStart(order.getCreatedAt());
+            long units = order.getItems().stream().mapToLong(OrderItem::getQuantity).sum();
+            
+            add(deltas, new SalesRollupId(grain, bucketStart, order.getWarehouseId(), SalesRollup.ALL_PRODUCTS),
+                    sign, sign * units, order.getTotalAmount().multiply(BigDecimal.valueOf(sign)));
+            
+            Map<Long, List<OrderItem>> itemsByProduct = order.getItems().stream()
+                    .collect(Collectors.groupingBy(OrderItem::getProductId));
+            itemsByProduct.forEach((productId, items) -> add(deltas,
+                    new SalesRollupId(grain, bucketStart, order.getWarehouseId(), productId),
+                    sign,
+                    sign * items.stream().mapToLong(OrderItem::getQuantity).sum(),
+                    items.stream().map(OrderItem::getTotalPrice).reduce(BigDecimal.ZERO, BigDecimal::add)
+                            .multiply(BigDecimal.valueOf(sign))));
+        }
+    }
+    
+    public List<SalesRollupResponse> getSalesReport(RollupGrain grain, Long warehouseId, Long productId,
+                                                    LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = grain.bucketStart(to != null ? to : LocalDateTime.now()).plus(grain.bucketLength());
+        LocalDateTime start = from != null
+                ? grain.bucketStart(from)
+                : end.minus(grain.bucketLength().multipliedBy(30));
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (Duration.between(start, end).dividedBy(grain.bucketLength()) > maxBuckets) {
+            throw new IllegalArgumentException("Requested range exceeds " + maxBuckets + " " + grain.name().toLowerCase() + " buckets");
+        }
+        
+        long product = productId != null ? productId : SalesRollup.ALL_PRODUCTS;
+        List<SalesRollup> rollups = warehouseId != null
+                ? salesRollupRepository.findRangeForWarehouse(grain, warehouseId, product, start, end)
+                : salesRollupRepository.findRange(grain, product, start, end);
+        
+        return rollups.stream()
+                .map(rollup -> new SalesRollupResponse(
+                        rollup.getId().getGrain(),
+                        rollup.getId().getBucketStart(),
+                        rollup.getId().getWarehouseId(),
+                        rollup.getId().getProductId(),
+                        rollup.getOrderCount(),
+                        rollup.getUnits(),
+                        rollup.getRevenue()))
+                .collect(Collectors.toList());
+    }
+    
+    private void add(Map<SalesRollupId, SalesRollup> deltas, SalesRollupId id, long orders, long units, BigDecimal revenue) {
+        SalesRollup delta = deltas.computeIfAbsent(id, key -> new SalesRollup(key, 0L, 0L, BigDecimal.ZERO));
+        delta.setOrderCount(delta.getOrderCount() + orders);
+        delta.setUnits(delta.getUnits() + units);
+        delta.setRevenue(delta.getRevenue().add(revenue));
+    }
+    
+    // Deltas of every order in the transaction are merged and written just before commit, in key order:
+    // the hot warehouse-total rows stay locked only for the commit itself and concurrent orders cannot deadlock
+    @SuppressWarnings("unchecked")
+    private Map<SalesRollupId, SalesRollup> pendingDeltas() {
+        Map<SalesRollupId, SalesRollup> deltas =
+                (Map<SalesRollupId, SalesRollup>) TransactionSynchronizationManager.getResource(this);
+        if (deltas != null) {
+            return deltas;
+        }
+        
+        Map<SalesRollupId, SalesRollup> created = new TreeMap<>(KEY_ORDER);
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                created.values().forEach(delta -> salesRollupRepository.upsert(
+                        delta.getId().getGrain().name(),
+                        delta.getId().getBucketStart(),
+                        delta.getId().getWarehouseId(),
+                        delta.getId().getProductId(),
+                        delta.getOrderCount(),
+                        delta.getUnits(),
+                        delta.getRevenue()));
+                log.debug("Applied {} sales rollup deltas", created.size());
+            }
+            
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(SalesRollupService.this);
+            }
+        });
+        return created;
+    }
+}
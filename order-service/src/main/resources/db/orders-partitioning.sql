@@ -0,0 +1,65 @@
+-- One-time conversion of the orders and order_items tables to monthly range partitions on the order's
+-- created_at (PostgreSQL 13+). Run during a maintenance window with the order service stopped, then start it
+-- with order.partitioning.enabled=true so OrderPartitionManager keeps future partitions created for both.
+--
+-- A partitioned table must carry the partition key in every unique constraint, so the primary key
+-- becomes (id, created_at) and order_number keeps a plain index, as Order maps it; order numbers come
+-- from the Snowflake generator and are unique by construction. order_items gets the order's created_at
+-- as order_created_at and is partitioned on it month by month, so an archived month is dropped from both
+-- tables instead of deleting its item rows one by one. The order_items foreign key to orders(id) cannot be
+-- expressed against a partitioned parent and is dropped; items are removed together with their order by
+-- OrderArchiver.
+
+BEGIN;
+
+DO $$
+DECLARE
+    fk record;
+BEGIN
+    FOR fk IN SELECT conname FROM pg_constraint
+              WHERE conrelid = 'order_items'::regclass AND confrelid = 'orders'::regclass LOOP
+        EXECUTE format('ALTER TABLE order_items DROP CONSTRAINT %I', fk.conname);
+    END LOOP;
+END $$;
+
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS order_created_at timestamp(6);
+UPDATE order_items i SET order_created_at = o.created_at FROM orders o WHERE o.id = i.order_id;
+ALTER TABLE order_items ALTER COLUMN order_created_at SET NOT NULL;
+
+ALTER TABLE orders RENAME TO orders_legacy;
+ALTER TABLE order_items RENAME TO order_items_legacy;
+
+CREATE TABLE orders (LIKE orders_legacy INCLUDING DEFAULTS) PARTITION BY RANGE (created_at);
+CREATE TABLE order_items (LIKE order_items_legacy INCLUDING DEFAULTS) PARTITION BY RANGE (order_created_at);
+
+DO $$
+DECLARE
+    month date := date_trunc('month', coalesce((SELECT min(created_at) FROM orders_legacy), now()));
+    last_month date := date_trunc('month', now()) + interval '3 months';
+BEGIN
+    WHILE month <= last_month LOOP
+        EXECUTE format('CREATE TABLE orders_p%s PARTITION OF orders FOR VALUES FROM (%L) TO (%L)',
+                       to_char(month, 'YYYYMM'), month, month + interval '1 month');
+        EXECUTE format('CREATE TABLE order_items_p%s PARTITION OF order_items FOR VALUES FROM (%L) TO (%L)',
+                       to_char(month, 'YYYYMM'), month, month + interval '1 month');
+        month := month + interval '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO orders SELECT * FROM orders_legacy;
+INSERT INTO order_items SELECT * FROM order_items_legacy;
+
+DROP TABLE order_items_legacy;
+DROP TABLE orders_legacy;
+
+ALTER TABLE orders ADD PRIMARY KEY (id, created_at);
+CREATE INDEX idx_orders_order_number ON orders (order_number);
+CREATE INDEX idx_orders_customer_id ON orders (customer_id, id);
+CREATE INDEX idx_orders_status_created ON orders (status, created_at, id);
+CREATE INDEX idx_orders_status_warehouse_created ON orders (status, warehouse_id, created_at, id);
+
+ALTER TABLE order_items ADD PRIMARY KEY (id, order_created_at);
+CREATE INDEX idx_order_items_order_id ON order_items (order_id);
+CREATE INDEX idx_order_items_product_order ON order_items (product_id, order_id);
+
+COMMIT;
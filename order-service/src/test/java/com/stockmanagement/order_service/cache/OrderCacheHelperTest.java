@@ -0,0 +1,103 @@
+package com.stockmanagement.order_service.cache;
+
+import com.stockmanagement.order_service.config.RedisConfig;
+import com.stockmanagement.order_service.dto.OrderItemResponse;
+import com.stockmanagement.order_service.dto.OrderResponse;
+import com.stockmanagement.order_service.entity.OrderStatus;
+import com.stockmanagement.order_service.metrics.OrderMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class OrderCacheHelperTest {
+
+	private static RedisServer redisServer;
+	private static LettuceConnectionFactory connectionFactory;
+	private static RedisTemplate<String, OrderResponse> redisTemplate;
+	private static StringRedisTemplate stringRedisTemplate;
+
+	private MeterRegistry meterRegistry;
+
+	@BeforeAll
+	static void startRedis() throws Exception {
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		redisServer = new RedisServer(port);
+		redisServer.start();
+		connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+		connectionFactory.afterPropertiesSet();
+		connectionFactory.start();
+		redisTemplate = new RedisConfig().redisTemplate(connectionFactory);
+		redisTemplate.afterPropertiesSet();
+		stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+	}
+
+	@AfterAll
+	static void stopRedis() throws Exception {
+		connectionFactory.destroy();
+		redisServer.stop();
+	}
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	@Test
+	void orderWrittenByOneInstanceIsReadBackFromRedisByAnother() {
+		OrderResponse order = order();
+		newHelper().cacheOrder(order);
+
+		// A second instance has an empty local cache, so both lookups go to Redis
+		OrderCacheHelper reader = newHelper();
+		assertEquals(order, reader.getOrder(order.getId()));
+		assertEquals(order, reader.getOrderByNumber(order.getOrderNumber()));
+
+		assertEquals(2, redisRequests("hit"));
+		assertEquals(0, redisRequests("miss"));
+	}
+
+	@Test
+	void evictedOrderMissesInRedis() {
+		OrderResponse order = order();
+		OrderCacheHelper helper = newHelper();
+		helper.cacheOrder(order);
+		helper.evictOrder(order.getId(), order.getOrderNumber());
+
+		assertNull(newHelper().getOrder(order.getId()));
+		assertEquals(1, redisRequests("miss"));
+	}
+
+	private double redisRequests(String result) {
+		return meterRegistry.get("order.cache.redis.requests").tag("result", result).counter().count();
+	}
+
+	private OrderCacheHelper newHelper() {
+		return new OrderCacheHelper(redisTemplate, stringRedisTemplate, new OrderMetrics(meterRegistry), 100, 30, 10);
+	}
+
+	private static OrderResponse order() {
+		OrderItemResponse item = new OrderItemResponse(11L, 5L, "Widget", "WID-1", 3,
+				new BigDecimal("2.50"), new BigDecimal("7.50"));
+		LocalDateTime createdAt = LocalDateTime.of(2026, 3, 1, 12, 30, 15);
+		return new OrderResponse(7L, "ORD-7", 3L, 1L, OrderStatus.CONFIRMED, new BigDecimal("7.50"),
+				"leave at the door", List.of(item), createdAt, createdAt);
+	}
+}
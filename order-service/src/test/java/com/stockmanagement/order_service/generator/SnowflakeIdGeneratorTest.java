@@ -0,0 +1,88 @@
+package com.stockmanagement.order_service.generator;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnowflakeIdGeneratorTest {
+
+	private static final int THREADS = 8;
+	private static final int IDS_PER_THREAD = 500_000;
+	private static final long EPOCH = 1704067200000L;
+
+	@Test
+	void generatesUniqueIdsAcrossThreads() throws Exception {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+
+		try {
+			List<Future<long[]>> futures = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				futures.add(executor.submit(() -> {
+					long[] ids = new long[IDS_PER_THREAD];
+					start.await();
+					for (int i = 0; i < IDS_PER_THREAD; i++) {
+						ids[i] = generator.nextId();
+					}
+					return ids;
+				}));
+			}
+			start.countDown();
+
+			long[] all = new long[THREADS * IDS_PER_THREAD];
+			int offset = 0;
+			for (Future<long[]> future : futures) {
+				long[] ids = future.get();
+				for (int i = 1; i < ids.length; i++) {
+					assertTrue(ids[i] > ids[i - 1], "ids must be monotonic within a thread");
+				}
+				System.arraycopy(ids, 0, all, offset, ids.length);
+				offset += ids.length;
+			}
+
+			Arrays.sort(all);
+			for (int i = 1; i < all.length; i++) {
+				assertTrue(all[i] != all[i - 1], "duplicate id: " + all[i]);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void embedsNodeIdAndPrefix() {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(513);
+
+		long id = generator.nextId();
+		String number = generator.nextNumber("ORD-");
+
+		assertEquals(513, (id >>> 12) & 0x3FF);
+		assertTrue(number.startsWith("ORD-"));
+		assertTrue(Long.parseLong(number.substring(4)) > id);
+	}
+
+	@Test
+	void exhaustedSequenceWaitsForTheClock() {
+		SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+
+		for (int i = 0; i < 100_000; i++) {
+			long timestamp = (generator.nextId() >>> 22) + EPOCH;
+			assertTrue(timestamp <= System.currentTimeMillis(), "id timestamp ran ahead of the clock");
+		}
+	}
+
+	@Test
+	void refusesToStartWithoutANodeId() {
+		assertThrows(IllegalStateException.class, () -> new SnowflakeIdGenerator(-1));
+	}
+}
@@ -0,0 +1,88 @@
+package com.stockmanagement.order_service.money;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Prices an order the way OrderService.buildOrder does, once with BigDecimal and once with Money.
+// Not part of the test run; start it with
+//   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.stockmanagement.order_service.money.MoneyBenchmark
+// and compare ops/ms together with gc.alloc.rate.norm (bytes allocated per priced order).
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+	
+	private static final Currency USD = Currency.getInstance("USD");
+	
+	@Param({"1", "10", "100"})
+	private int lines;
+	
+	private BigDecimal[] prices;
+	private int[] quantities;
+	
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		prices = new BigDecimal[lines];
+		quantities = new int[lines];
+		for (int i = 0; i < lines; i++) {
+			prices[i] = BigDecimal.valueOf(random.nextInt(100_000), 2);
+			quantities[i] = 1 + random.nextInt(20);
+		}
+	}
+	
+	@Benchmark
+	public BigDecimal bigDecimalTotal() {
+		BigDecimal total = BigDecimal.ZERO;
+		for (int i = 0; i < lines; i++) {
+			total = total.add(prices[i].multiply(BigDecimal.valueOf(quantities[i])));
+		}
+		return total;
+	}
+	
+	@Benchmark
+	public BigDecimal moneyTotal() {
+		Money total = Money.zero(USD);
+		for (int i = 0; i < lines; i++) {
+			total = total.plus(Money.of(prices[i], USD).times(quantities[i]));
+		}
+		return total.toBigDecimal();
+	}
+	
+	// Pure pricing math once amounts are already in minor units, e.g. for cached product prices
+	@Benchmark
+	public long minorUnitTotal() {
+		long total = 0;
+		for (int i = 0; i < lines; i++) {
+			total = Math.addExact(total, Math.multiplyExact(prices[i].unscaledValue().longValueExact(), quantities[i]));
+		}
+		return total;
+	}
+	
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(MoneyBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
@@ -0,0 +1,43 @@
+package com.stockmanagement.order_service.money;
+
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+
+	private static final Currency USD = Currency.getInstance("USD");
+	private static final Currency JPY = Currency.getInstance("JPY");
+
+	@Test
+	void convertsExactlyAtTheBoundaries() {
+		Money price = Money.of(new BigDecimal("19.9"), USD);
+
+		assertEquals(1990, price.getMinorUnits());
+		assertEquals(new BigDecimal("19.90"), price.toBigDecimal());
+		assertEquals(new BigDecimal("500"), Money.of(new BigDecimal("500"), JPY).toBigDecimal());
+	}
+
+	@Test
+	void lineTotalsMatchBigDecimalArithmetic() {
+		BigDecimal unit = new BigDecimal("0.10");
+		Money total = Money.zero(USD);
+		BigDecimal expected = BigDecimal.ZERO;
+		for (int quantity = 1; quantity <= 100; quantity++) {
+			total = total.plus(Money.of(unit, USD).times(quantity));
+			expected = expected.add(unit.multiply(BigDecimal.valueOf(quantity)));
+		}
+
+		assertEquals(0, expected.compareTo(total.toBigDecimal()));
+	}
+
+	@Test
+	void rejectsLossyOrMixedAmounts() {
+		assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("1.005"), USD));
+		assertThrows(IllegalArgumentException.class, () -> Money.zero(USD).plus(Money.zero(JPY)));
+		assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE, USD).times(2));
+	}
+}
@@ -0,0 +1,113 @@
+package com.stockmanagement.order_service.repository;
+
+import com.stockmanagement.order_service.entity.Order;
+import com.stockmanagement.order_service.entity.OrderItem;
+import com.stockmanagement.order_service.entity.OrderStatus;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+		"spring.cloud.config.enabled=false",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Slf4j
+class OrderPersistenceBenchmarkTest {
+
+	private static final int ORDERS = 100;
+	private static final int ITEMS_PER_ORDER = 5;
+	// Both id sequences hand out blocks of 50, and a run may start part way through a block left by another test
+	private static final int MAX_SEQUENCE_CALLS = (ORDERS / 50 + 1) + (ORDERS * ITEMS_PER_ORDER / 50 + 1);
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	// Previous flow: unbatched inserts as PENDING, then a second write for the final status
+	@Test
+	void pendingThenConfirmedWithoutBatching() {
+		entityManager.unwrap(Session.class).setJdbcBatchSize(1);
+
+		for (int i = 0; i < ORDERS; i++) {
+			Order order = newOrder("ORD-LEGACY-" + i, OrderStatus.PENDING);
+			orderRepository.save(order);
+			entityManager.flush();
+
+			order.setStatus(OrderStatus.CONFIRMED);
+			orderRepository.save(order);
+			entityManager.flush();
+			entityManager.clear();
+		}
+
+		report("pending-then-confirmed, unbatched");
+		assertEquals(ORDERS, statistics.getEntityUpdateCount());
+		// One insert per order and per item, then the status update
+		assertWriteStatements(ORDERS * (ITEMS_PER_ORDER + 2L));
+	}
+
+	@Test
+	void singleWriteWithBatching() {
+		for (int i = 0; i < ORDERS; i++) {
+			orderRepository.save(newOrder("ORD-SINGLE-" + i, OrderStatus.CONFIRMED));
+			entityManager.flush();
+			entityManager.clear();
+		}
+
+		report("single write, batched");
+		assertEquals(0, statistics.getEntityUpdateCount());
+		assertEquals(ORDERS * (ITEMS_PER_ORDER + 1L), statistics.getEntityInsertCount());
+		// One order insert and one batched item insert per order
+		assertWriteStatements(ORDERS * 2L);
+	}
+
+	private void assertWriteStatements(long expected) {
+		long sequenceCalls = statistics.getPrepareStatementCount() - expected;
+		assertTrue(sequenceCalls >= 0 && sequenceCalls <= MAX_SEQUENCE_CALLS,
+				"expected " + expected + " write statements plus id fetches, got " + statistics.getPrepareStatementCount());
+	}
+
+	private void report(String label) {
+		log.info("{}: {} statements for {} orders of {} items", label, statistics.getPrepareStatementCount(),
+				ORDERS, ITEMS_PER_ORDER);
+	}
+
+	private Order newOrder(String orderNumber, OrderStatus status) {
+		Order order = new Order();
+		order.setOrderNumber(orderNumber);
+		order.setCustomerId(1L);
+		order.setWarehouseId(1L);
+		order.setStatus(status);
+		order.setTotalAmount(BigDecimal.TEN);
+		for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+			OrderItem item = new OrderItem();
+			item.setProductId((long) j);
+			item.setProductName("Product " + j);
+			item.setProductSku("SKU-" + j);
+			item.setQuantity(1);
+			item.setUnitPrice(BigDecimal.ONE);
+			item.setTotalPrice(BigDecimal.ONE);
+			order.addItem(item);
+		}
+		return order;
+	}
+}
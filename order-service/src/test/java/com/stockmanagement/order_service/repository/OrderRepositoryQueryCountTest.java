@@ -0,0 +1,214 @@
+package com.stockmanagement.order_service.repository;
+
+import com.stockmanagement.order_service.dto.OrderSummaryResponse;
+import com.stockmanagement.order_service.entity.Order;
+import com.stockmanagement.order_service.entity.OrderItem;
+import com.stockmanagement.order_service.entity.OrderSaga;
+import com.stockmanagement.order_service.entity.OrderStatus;
+import com.stockmanagement.order_service.entity.SagaState;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+		"spring.cloud.config.enabled=false",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class OrderRepositoryQueryCountTest {
+
+	private static final long CUSTOMER_ID = 42L;
+	private static final int ORDERS = 50;
+	private static final int ITEMS_PER_ORDER = 3;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		for (int i = 0; i < ORDERS; i++) {
+			Order order = new Order();
+			order.setOrderNumber("ORD-TEST-" + i);
+			order.setCustomerId(CUSTOMER_ID);
+			order.setWarehouseId(1L);
+			order.setStatus(OrderStatus.CONFIRMED);
+			order.setTotalAmount(BigDecimal.TEN);
+			for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+				OrderItem item = new OrderItem();
+				item.setProductId((long) j);
+				item.setProductName("Product " + j);
+				item.setProductSku("SKU-" + j);
+				item.setQuantity(1);
+				item.setUnitPrice(BigDecimal.ONE);
+				item.setTotalPrice(BigDecimal.ONE);
+				order.addItem(item);
+			}
+			entityManager.persist(order);
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@Test
+	void customerOrdersLoadItemsInOneStatement() {
+		List<Order> orders = orderRepository.findByCustomerId(CUSTOMER_ID);
+
+		assertEquals(ORDERS * ITEMS_PER_ORDER, countItems(orders));
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void keysetPageBatchFetchesItems() {
+		List<Order> orders = orderRepository.findByCustomerIdAndIdLessThanOrderByIdDesc(
+				CUSTOMER_ID, Long.MAX_VALUE, Limit.of(ORDERS));
+
+		assertEquals(ORDERS * ITEMS_PER_ORDER, countItems(orders));
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void exportPagesBatchFetchItems() {
+		long afterId = 0;
+		int pages = 0;
+		int items = 0;
+		List<Order> page;
+		do {
+			page = orderRepository.findByCustomerIdAndIdGreaterThanOrderById(CUSTOMER_ID, afterId, Limit.of(20));
+			items += countItems(page);
+			if (!page.isEmpty()) {
+				afterId = page.get(page.size() - 1).getId();
+			}
+			entityManager.clear();
+			pages++;
+		} while (page.size() == 20);
+
+		// Pages of 20, 20 and 10 orders, each followed by one items query
+		assertEquals(ORDERS * ITEMS_PER_ORDER, items);
+		assertEquals(3, pages);
+		assertEquals(2 * pages, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void archivableBatchIsLimitedInTheQuery() {
+		List<Order> orders = orderRepository.lockArchivable(Set.of(OrderStatus.CONFIRMED.name()),
+				LocalDateTime.now().plusMinutes(1), 0L, 20);
+
+		assertEquals(20, orders.size());
+		assertEquals(20 * ITEMS_PER_ORDER, countItems(orders));
+		// Only the page's orders and items are loaded, not every archivable order
+		assertEquals(20 + 20 * ITEMS_PER_ORDER, statistics.getEntityLoadCount());
+		assertEquals(2, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void summariesUseASingleStatement() {
+		List<OrderSummaryResponse> summaries = orderRepository.findSummariesByCustomerId(
+				CUSTOMER_ID, Long.MAX_VALUE, Limit.of(ORDERS));
+
+		assertEquals(ORDERS, summaries.size());
+		assertEquals(ITEMS_PER_ORDER, summaries.get(0).getItemCount());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void statusWindowKeysetVisitsEveryOrderOnce() {
+		LocalDateTime from = LocalDateTime.now().minusHours(1);
+		LocalDateTime beforeCreatedAt = LocalDateTime.now().plusMinutes(1);
+		long beforeId = Long.MIN_VALUE;
+		Set<Long> seen = new HashSet<>();
+
+		List<OrderSummaryResponse> page;
+		do {
+			page = orderRepository.findSummariesByStatusAndWarehouse(
+					OrderStatus.CONFIRMED, 1L, from, beforeCreatedAt, beforeId, Limit.of(7));
+			for (OrderSummaryResponse summary : page) {
+				assertTrue(seen.add(summary.getId()));
+			}
+			if (!page.isEmpty()) {
+				beforeCreatedAt = page.get(page.size() - 1).getCreatedAt();
+				beforeId = page.get(page.size() - 1).getId();
+			}
+		} while (!page.isEmpty());
+
+		assertEquals(ORDERS, seen.size());
+		assertEquals(ORDERS, orderRepository.countByStatusAndWarehouseBetween(
+				OrderStatus.CONFIRMED, 1L, from, LocalDateTime.now().plusMinutes(1)));
+	}
+
+	@Test
+	void productLookupPagesThroughMatchingOrdersOnly() {
+		Order cancelled = orderRepository.findAll().get(0);
+		cancelled.setStatus(OrderStatus.CANCELLED);
+		orderRepository.saveAndFlush(cancelled);
+		statistics.clear();
+
+		Set<OrderStatus> open = Set.of(OrderStatus.CONFIRMED);
+		LocalDateTime from = LocalDateTime.now().minusHours(1);
+		LocalDateTime to = LocalDateTime.now().plusMinutes(1);
+		long beforeId = Long.MAX_VALUE;
+		Set<Long> seen = new HashSet<>();
+
+		List<OrderSummaryResponse> page;
+		do {
+			page = orderRepository.findSummariesByProduct(1L, open, from, to, beforeId, Limit.of(10));
+			for (OrderSummaryResponse summary : page) {
+				assertTrue(summary.getId() < beforeId);
+				assertTrue(seen.add(summary.getId()));
+			}
+			if (!page.isEmpty()) {
+				beforeId = page.get(page.size() - 1).getId();
+			}
+		} while (!page.isEmpty());
+
+		assertEquals(ORDERS - 1, seen.size());
+		assertFalse(seen.contains(cancelled.getId()));
+		assertEquals(6, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void stalledAsyncOrdersExcludeSagaDrivenOnes() {
+		List<Order> orders = orderRepository.findAll();
+		Order workerOrder = orders.get(0);
+		Order sagaOrder = orders.get(1);
+		workerOrder.setStatus(OrderStatus.PENDING);
+		sagaOrder.setStatus(OrderStatus.PENDING);
+		orderRepository.saveAndFlush(workerOrder);
+		orderRepository.saveAndFlush(sagaOrder);
+		OrderSaga saga = new OrderSaga();
+		saga.setOrderId(sagaOrder.getId());
+		saga.setState(SagaState.RESERVING);
+		saga.setDeadline(LocalDateTime.now().plusMinutes(1));
+		entityManager.persist(saga);
+		entityManager.flush();
+
+		assertEquals(List.of(workerOrder.getId()), orderRepository.findStalledAsyncOrderIds(
+				OrderStatus.PENDING, LocalDateTime.now().plusMinutes(1), Limit.of(10)));
+		assertTrue(orderRepository.findStalledAsyncOrderIds(
+				OrderStatus.PENDING, LocalDateTime.now().minusHours(1), Limit.of(10)).isEmpty());
+	}
+
+	private int countItems(List<Order> orders) {
+		return orders.stream().mapToInt(order -> order.getItems().size()).sum();
+	}
+}
@@ -0,0 +1,139 @@
+package com.stockmanagement.order_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockmanagement.order_service.exception.IdempotencyKeyMismatchException;
+import com.stockmanagement.order_service.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// H2 in PostgreSQL mode accepts the INSERT ... ON CONFLICT DO NOTHING used to claim a key
+@DataJpaTest(properties = {
+		"spring.cloud.config.enabled=false",
+		"spring.datasource.url=jdbc:h2:mem:idempotency;MODE=PostgreSQL;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyServiceTest {
+
+	private static final int THREADS = 8;
+
+	@Autowired
+	private IdempotencyRecordRepository repository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private IdempotencyService idempotencyService;
+	private AtomicInteger executions;
+
+	@BeforeEach
+	void setUp() {
+		repository.deleteAll();
+		idempotencyService = new IdempotencyService(repository, new ObjectMapper(), transactionManager);
+		ReflectionTestUtils.setField(idempotencyService, "waitTimeoutMs", 5_000L);
+		ReflectionTestUtils.setField(idempotencyService, "inProgressTimeoutMs", 60_000L);
+		executions = new AtomicInteger();
+	}
+
+	@AfterEach
+	void tearDown() {
+		idempotencyService.shutdown();
+	}
+
+	@Test
+	void replaysTheStoredResponse() {
+		String first = idempotencyService.execute("key-1", Map.of("qty", 1), String.class, () -> createOrder(0));
+		String replayed = idempotencyService.execute("key-1", Map.of("qty", 1), String.class, () -> createOrder(0));
+
+		assertEquals("ORD-1", first);
+		assertEquals(first, replayed);
+		assertEquals(1, executions.get());
+	}
+
+	@Test
+	void rejectsAKeyReusedForADifferentRequest() {
+		idempotencyService.execute("key-2", Map.of("qty", 1), String.class, () -> createOrder(0));
+
+		assertThrows(IdempotencyKeyMismatchException.class, () ->
+				idempotencyService.execute("key-2", Map.of("qty", 2), String.class, () -> createOrder(0)));
+		assertEquals(1, executions.get());
+	}
+
+	@Test
+	void rejectsKeysLongerThanTheColumn() {
+		assertThrows(IllegalArgumentException.class, () ->
+				idempotencyService.execute("k".repeat(101), Map.of("qty", 1), String.class, () -> createOrder(0)));
+		assertEquals(0, executions.get());
+	}
+
+	@Test
+	void concurrentDuplicatesExecuteOnce() throws Exception {
+		assertEquals(List.of("ORD-1"), runConcurrently("key-3", 300));
+		assertEquals(1, executions.get());
+	}
+
+	@Test
+	void aSlowRequestKeepsItsClaimPastTheInProgressTimeout() throws Exception {
+		// Without renewal the duplicates would take the key over after 200 ms and create a second order
+		ReflectionTestUtils.setField(idempotencyService, "inProgressTimeoutMs", 200L);
+
+		assertEquals(List.of("ORD-1"), runConcurrently("key-4", 1_000));
+		assertEquals(1, executions.get());
+	}
+
+	private List<String> runConcurrently(String key, long actionMillis) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<String>> futures = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					return idempotencyService.execute(key, Map.of("qty", 1), String.class,
+							() -> createOrder(actionMillis));
+				}));
+			}
+			start.countDown();
+			List<String> responses = new ArrayList<>();
+			for (Future<String> future : futures) {
+				String response = future.get(30, TimeUnit.SECONDS);
+				if (!responses.contains(response)) {
+					responses.add(response);
+				}
+			}
+			return responses;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private String createOrder(long millis) {
+		int number = executions.incrementAndGet();
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return "ORD-" + number;
+	}
+}
@@ -0,0 +1,78 @@
+package com.stockmanagement.order_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.stockmanagement.order_service.dto.OrderResponse;
+import com.stockmanagement.order_service.entity.OrderStatus;
+import com.stockmanagement.order_service.repository.ArchivedOrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class OrderArchiveStoreTest {
+
+	@TempDir
+	private Path directory;
+
+	private OrderArchiveStore orderArchiveStore;
+
+	@BeforeEach
+	void setUp() {
+		orderArchiveStore = new OrderArchiveStore(mock(ArchivedOrderRepository.class),
+				new ObjectMapper().registerModule(new JavaTimeModule()), true, directory.toString());
+	}
+
+	@AfterEach
+	void clearSynchronization() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void rolledBackWriteOnlyRemovesItsOwnFile() throws IOException {
+		List<OrderResponse> batch = List.of(order(1L), order(2L));
+
+		// Two replicas archiving the same batch: the first commits, the second rolls back
+		List<TransactionSynchronization> winner = write(batch);
+		List<TransactionSynchronization> loser = write(batch);
+		assertEquals(2, archives().size());
+
+		winner.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+		loser.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+		assertEquals(1, archives().size());
+	}
+
+	private List<TransactionSynchronization> write(List<OrderResponse> batch) {
+		TransactionSynchronizationManager.initSynchronization();
+		orderArchiveStore.write(batch);
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		return synchronizations;
+	}
+
+	private List<Path> archives() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.toList();
+		}
+	}
+
+	private static OrderResponse order(Long id) {
+		return new OrderResponse(id, "ORD-" + id, 1L, 1L, OrderStatus.DELIVERED, BigDecimal.TEN, null,
+				List.of(), LocalDateTime.now(), LocalDateTime.now());
+	}
+}
@@ -0,0 +1,126 @@
+package com.stockmanagement.order_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockmanagement.order_service.cache.OrderCacheHelper;
+import com.stockmanagement.order_service.client.InventoryClient;
+import com.stockmanagement.order_service.client.ProductClient;
+import com.stockmanagement.order_service.entity.Order;
+import com.stockmanagement.order_service.entity.OrderItem;
+import com.stockmanagement.order_service.entity.OrderSaga;
+import com.stockmanagement.order_service.entity.OrderStatus;
+import com.stockmanagement.order_service.entity.SagaState;
+import com.stockmanagement.order_service.event.StockCommand;
+import com.stockmanagement.order_service.event.StockCommandType;
+import com.stockmanagement.order_service.generator.SnowflakeIdGenerator;
+import com.stockmanagement.order_service.metrics.OrderMetrics;
+import com.stockmanagement.order_service.publisher.OrderEventPublisher;
+import com.stockmanagement.order_service.repository.OrderRepository;
+import com.stockmanagement.order_service.repository.OrderSagaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderCancellationTest {
+
+	private static final long ORDER_ID = 7L;
+
+	private OrderRepository orderRepository;
+	private OrderSagaRepository orderSagaRepository;
+	private InventoryClient inventoryClient;
+	private OrderEventPublisher eventPublisher;
+	private OrderService orderService;
+
+	@BeforeEach
+	void setUp() {
+		orderRepository = mock(OrderRepository.class);
+		orderSagaRepository = mock(OrderSagaRepository.class);
+		inventoryClient = mock(InventoryClient.class);
+		eventPublisher = mock(OrderEventPublisher.class);
+		OrderMetrics orderMetrics = mock(OrderMetrics.class);
+		when(orderMetrics.stageTimer(any(), anyInt())).thenReturn(new SimpleMeterRegistry().timer("stage"));
+		orderService = new OrderService(orderRepository, orderSagaRepository, mock(ProductClient.class),
+				inventoryClient, eventPublisher, mock(OrderItemValidator.class), mock(SnowflakeIdGenerator.class),
+				new ObjectMapper(), mock(EntityManager.class), mock(OrderCacheHelper.class), orderMetrics,
+				mock(SalesRollupService.class), mock(OrderArchiveStore.class), mock(QuoteService.class));
+		when(orderSagaRepository.findById(ORDER_ID)).thenReturn(Optional.empty());
+	}
+
+	@Test
+	void confirmedOrderReleasesItsStock() {
+		Order order = order(OrderStatus.CONFIRMED);
+
+		orderService.cancelOrder(ORDER_ID);
+
+		assertEquals(OrderStatus.CANCELLED, order.getStatus());
+		verify(inventoryClient).releaseStockBatch(any());
+	}
+
+	@Test
+	void pendingAndFailedOrdersAreCancelledWithoutTouchingInventory() {
+		Order pending = order(OrderStatus.PENDING);
+		orderService.cancelOrder(ORDER_ID);
+		assertEquals(OrderStatus.CANCELLED, pending.getStatus());
+
+		Order failed = order(OrderStatus.FAILED);
+		orderService.cancelOrder(ORDER_ID);
+		assertEquals(OrderStatus.CANCELLED, failed.getStatus());
+
+		verify(inventoryClient, never()).releaseStockBatch(any());
+	}
+
+	@Test
+	void cancelledOrderCannotBeCancelledAgain() {
+		order(OrderStatus.CANCELLED);
+
+		assertThrows(IllegalStateException.class, () -> orderService.cancelOrder(ORDER_ID));
+		verify(inventoryClient, never()).releaseStockBatch(any());
+	}
+
+	@Test
+	void sagaOrderIsReleasedByCommand() {
+		Order order = order(OrderStatus.CONFIRMED);
+		OrderSaga saga = new OrderSaga();
+		saga.setOrderId(ORDER_ID);
+		saga.setState(SagaState.COMPLETED);
+		when(orderSagaRepository.findById(ORDER_ID)).thenReturn(Optional.of(saga));
+
+		orderService.cancelOrder(ORDER_ID);
+
+		assertEquals(OrderStatus.CANCELLED, order.getStatus());
+		assertEquals(SagaState.COMPENSATED, saga.getState());
+		ArgumentCaptor<StockCommand> command = ArgumentCaptor.forClass(StockCommand.class);
+		verify(eventPublisher).sendStockCommand(command.capture());
+		assertEquals(StockCommandType.RELEASE, command.getValue().getType());
+		verify(inventoryClient, never()).releaseStockBatch(any());
+	}
+
+	private Order order(OrderStatus status) {
+		Order order = new Order();
+		order.setId(ORDER_ID);
+		order.setOrderNumber("ORD-" + ORDER_ID);
+		order.setCustomerId(1L);
+		order.setWarehouseId(1L);
+		order.setStatus(status);
+		OrderItem item = new OrderItem();
+		item.setProductId(3L);
+		item.setQuantity(2);
+		item.setUnitPrice(BigDecimal.ONE);
+		item.setTotalPrice(BigDecimal.TWO);
+		order.addItem(item);
+		when(orderRepository.findForUpdate(ORDER_ID)).thenReturn(Optional.of(order));
+		return order;
+	}
+}
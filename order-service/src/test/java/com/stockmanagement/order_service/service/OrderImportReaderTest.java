@@ -0,0 +1,69 @@
+package com.stockmanagement.order_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockmanagement.order_service.service.OrderImportReader.ImportedOrder;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderImportReaderTest {
+
+	@Test
+	void csvRowsSharingAReferenceFormOneOrder() throws IOException {
+		OrderImportReader reader = OrderImportReader.csv(stream(
+				OrderImportReader.CSV_HEADER + "\n" +
+				"A-1,7,1,100,2,first, with comma\n" +
+				"A-1,7,1,101,1,\n" +
+				"\n" +
+				"A-2,8,1,100,x\n" +
+				"A-3,9,2,102,4\n"));
+
+		ImportedOrder first = reader.next();
+		assertEquals(2, first.getRow());
+		assertEquals("A-1", first.getReference());
+		assertEquals(2, first.getRequest().getItems().size());
+		assertEquals("first, with comma", first.getRequest().getNotes());
+
+		ImportedOrder second = reader.next();
+		assertEquals(5, second.getRow());
+		assertNull(second.getRequest());
+		assertNotNull(second.getError());
+
+		ImportedOrder third = reader.next();
+		assertEquals("A-3", third.getReference());
+		assertEquals(9L, third.getRequest().getCustomerId());
+
+		assertNull(reader.next());
+	}
+
+	@Test
+	void csvWithoutHeaderIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> OrderImportReader.csv(stream("A-1,7,1,100,2\n")));
+	}
+
+	@Test
+	void ndjsonReportsMalformedLinesWithoutStopping() throws IOException {
+		OrderImportReader reader = OrderImportReader.ndjson(stream(
+				"{\"customerId\":1,\"warehouseId\":2,\"items\":[{\"productId\":3,\"quantity\":1}]}\n" +
+				"{not json\n" +
+				"{\"customerId\":4,\"warehouseId\":2,\"items\":[]}\n"), new ObjectMapper());
+
+		assertEquals(1L, reader.next().getRequest().getCustomerId());
+		ImportedOrder malformed = reader.next();
+		assertEquals(2, malformed.getRow());
+		assertNotNull(malformed.getError());
+		assertEquals(4L, reader.next().getRequest().getCustomerId());
+		assertNull(reader.next());
+	}
+
+	private InputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,91 @@
+package com.stockmanagement.order_service.service;
+
+import com.stockmanagement.order_service.cache.OrderCacheHelper;
+import com.stockmanagement.order_service.entity.Order;
+import com.stockmanagement.order_service.entity.OrderSaga;
+import com.stockmanagement.order_service.entity.OrderStatus;
+import com.stockmanagement.order_service.entity.SagaState;
+import com.stockmanagement.order_service.event.StockCommand;
+import com.stockmanagement.order_service.event.StockCommandReply;
+import com.stockmanagement.order_service.event.StockCommandType;
+import com.stockmanagement.order_service.metrics.OrderMetrics;
+import com.stockmanagement.order_service.publisher.OrderEventPublisher;
+import com.stockmanagement.order_service.repository.OrderRepository;
+import com.stockmanagement.order_service.repository.OrderSagaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderSagaServiceTest {
+
+	private static final long ORDER_ID = 7L;
+
+	private OrderService orderService;
+	private OrderRepository orderRepository;
+	private OrderSagaRepository orderSagaRepository;
+	private OrderEventPublisher eventPublisher;
+	private OrderMetrics orderMetrics;
+	private OrderSagaService orderSagaService;
+	private OrderSaga saga;
+
+	@BeforeEach
+	void setUp() {
+		orderService = mock(OrderService.class);
+		orderRepository = mock(OrderRepository.class);
+		orderSagaRepository = mock(OrderSagaRepository.class);
+		eventPublisher = mock(OrderEventPublisher.class);
+		orderMetrics = mock(OrderMetrics.class);
+		orderSagaService = new OrderSagaService(orderService, orderRepository, orderSagaRepository, eventPublisher,
+				mock(OrderCacheHelper.class), orderMetrics, mock(PlatformTransactionManager.class));
+
+		saga = new OrderSaga();
+		saga.setOrderId(ORDER_ID);
+		saga.setState(SagaState.CONFIRMING);
+		when(orderSagaRepository.findById(ORDER_ID)).thenReturn(Optional.of(saga));
+	}
+
+	@Test
+	void confirmReplyCompletesAPendingOrder() {
+		Order order = order(OrderStatus.PENDING);
+
+		orderSagaService.handleReply(new StockCommandReply(ORDER_ID, StockCommandType.CONFIRM, true, null));
+
+		assertEquals(OrderStatus.CONFIRMED, order.getStatus());
+		assertEquals(SagaState.COMPLETED, saga.getState());
+		verify(orderService).recordConfirmation(order);
+		verify(eventPublisher, never()).sendStockCommand(any());
+	}
+
+	@Test
+	void confirmReplyReleasesStockOfAnOrderCancelledMeanwhile() {
+		Order order = order(OrderStatus.CANCELLED);
+
+		orderSagaService.handleReply(new StockCommandReply(ORDER_ID, StockCommandType.CONFIRM, true, null));
+
+		assertEquals(OrderStatus.CANCELLED, order.getStatus());
+		assertEquals(SagaState.COMPENSATED, saga.getState());
+		ArgumentCaptor<StockCommand> command = ArgumentCaptor.forClass(StockCommand.class);
+		verify(eventPublisher).sendStockCommand(command.capture());
+		assertEquals(StockCommandType.RELEASE, command.getValue().getType());
+		verify(orderService, never()).recordConfirmation(any());
+		verify(orderMetrics, never()).incrementOrderCreated();
+	}
+
+	private Order order(OrderStatus status) {
+		Order order = new Order();
+		order.setId(ORDER_ID);
+		order.setOrderNumber("ORD-" + ORDER_ID);
+		order.setStatus(status);
+		when(orderRepository.findForUpdate(ORDER_ID)).thenReturn(Optional.of(order));
+		return order;
+	}
+}
@@ -1,21 +1,33 @@
 package com.stockmanagement.product_service.cache;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Component;
 
 import com.stockmanagement.product_service.dto.ProductResponse;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class ProductCacheHelper {
     
+    private static final TypeReference<List<ProductResponse>> PRODUCT_LIST = new TypeReference<>() {};
+    
     private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper redisObjectMapper;
     private static final String CACHE_PREFIX = "products:";
     private static final String SKU_PREFIX = "products:sku:";
     private static final String CATEGORY_PREFIX = "products:category:";
@@ -40,17 +52,61 @@ public class ProductCacheHelper {
     public ProductResponse getProduct(Long id) {
         try {
             String key = CACHE_PREFIX + id;
-            return (ProductResponse) redisTemplate.opsForValue().get(key);
+            return toProduct(redisTemplate.opsForValue().get(key));
         } catch (Exception e) {
             log.error("Error getting product from cache: {}", id, e);
             return null;
         }
     }
     
+    public Map<Long, ProductResponse> getProducts(Collection<Long> ids) {
+        Map<Long, ProductResponse> found = new HashMap<>();
+        try {
+            List<Long> idList = new ArrayList<>(ids);
+            List<String> keys = idList.stream()
+                    .map(id -> CACHE_PREFIX + id)
+                    .collect(Collectors.toList());
+
+            List<Object> values = redisTemplate.opsForValue().multiGet(keys);
+            if (values == null) {
+                return found;
+            }
+
+            for (int i = 0; i < idList.size(); i++) {
+                ProductResponse product = toProduct(values.get(i));
+                if (product != null) {
+                    found.put(idList.get(i), product);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error getting products from cache: {}", ids, e);
+        }
+        return found;
+    }
+
+    public void cacheProducts(Collection<ProductResponse> products) {
+        try {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) {
+                    for (ProductResponse product : products) {
+                        operations.opsForValue().set(CACHE_PREFIX + product.getId(), product, TTL_HOURS, TimeUnit.HOURS);
+                        operations.opsForValue().set(SKU_PREFIX + product.getSku(), product, TTL_HOURS, TimeUnit.HOURS);
+                    }
+                    return null;
+                }
+            });
+            log.debug("Cached {} products", products.size());
+        } catch (Exception e) {
+            log.error("Error caching products", e);
+        }
+    }
+
     public ProductResponse getProductBySku(String sku) {
         try {
             String key = SKU_PREFIX + sku;
-            return (ProductResponse) redisTemplate.opsForValue().get(key);
+            return toProduct(redisTemplate.opsForValue().get(key));
         } catch (Exception e) {
             log.error("Error getting product by SKU from cache: {}", sku, e);
             return null;
@@ -94,13 +150,18 @@ public class ProductCacheHelper {
         }
     }
     
-    @SuppressWarnings("unchecked")
     public List<ProductResponse> getProductList(String key) {
         try {
-            return (List<ProductResponse>) redisTemplate.opsForValue().get(key);
+            Object value = redisTemplate.opsForValue().get(key);
+            return value == null ? null : redisObjectMapper.convertValue(value, PRODUCT_LIST);
         } catch (Exception e) {
             log.error("Error getting product list from cache: {}", key, e);
             return null;
         }
     }
+    
+    // The serializer stores no type information, so values come back as maps
+    private ProductResponse toProduct(Object value) {
+        return value == null ? null : redisObjectMapper.convertValue(value, ProductResponse.class);
+    }
 }
\ No newline at end of file
@@ -29,6 +29,12 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
     
+    @PostMapping("/batch")
+    public ResponseEntity<List<ProductResponse>> getProductsByIds(@RequestBody List<Long> ids) {
+        List<ProductResponse> responses = productService.getProductsByIds(ids);
+        return ResponseEntity.ok(responses);
+    }
+    
     @GetMapping("/sku/{sku}")
     public ResponseEntity<ProductResponse> getProductBySku(@PathVariable String sku) {
         ProductResponse response = productService.getProductBySku(sku);
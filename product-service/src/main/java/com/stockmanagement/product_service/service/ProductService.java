@@ -4,7 +4,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import io.micrometer.tracing.Span;
 import io.micrometer.tracing.Tracer;
 import java.util.stream.Collectors;
@@ -83,6 +87,30 @@ public class ProductService {
         }
     }
     
+    public List<ProductResponse> getProductsByIds(List<Long> ids) {
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        Map<Long, ProductResponse> products = cacheHelper.getProducts(uniqueIds);
+        
+        List<Long> missingIds = uniqueIds.stream()
+                .filter(id -> !products.containsKey(id))
+                .collect(Collectors.toList());
+        
+        if (!missingIds.isEmpty()) {
+            log.debug("Products not found in cache: {}", missingIds);
+            List<ProductResponse> loaded = productRepository.findAllById(missingIds).stream()
+                    .map(this::mapToResponse)
+                    .collect(Collectors.toList());
+            
+            loaded.forEach(product -> products.put(product.getId(), product));
+            cacheHelper.cacheProducts(loaded);
+        }
+        
+        return uniqueIds.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+    
     public ProductResponse getProductBySku(String sku) {
         ProductResponse cached = cacheHelper.getProductBySku(sku);
         if (cached != null) {
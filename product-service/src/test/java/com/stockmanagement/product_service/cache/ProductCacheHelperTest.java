@@ -0,0 +1,88 @@
+package com.stockmanagement.product_service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stockmanagement.product_service.config.RedisConfig;
+import com.stockmanagement.product_service.dto.ProductResponse;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import redis.embedded.RedisServer;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductCacheHelperTest {
+
+	private static RedisServer redisServer;
+	private static LettuceConnectionFactory connectionFactory;
+	private static ProductCacheHelper cacheHelper;
+	private static RedisTemplate<String, Object> redisTemplate;
+
+	@BeforeAll
+	static void startRedis() throws Exception {
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		redisServer = new RedisServer(port);
+		redisServer.start();
+		connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+		connectionFactory.afterPropertiesSet();
+		connectionFactory.start();
+		RedisConfig redisConfig = new RedisConfig();
+		ObjectMapper objectMapper = redisConfig.redisObjectMapper();
+		redisTemplate = redisConfig.redisTemplate(connectionFactory, objectMapper);
+		cacheHelper = new ProductCacheHelper(redisTemplate, objectMapper);
+	}
+
+	@AfterAll
+	static void stopRedis() throws Exception {
+		connectionFactory.destroy();
+		redisServer.stop();
+	}
+
+	@BeforeEach
+	void wipeRedis() {
+		redisTemplate.execute((RedisCallback<Object>) connection -> {
+			connection.serverCommands().flushAll();
+			return null;
+		});
+	}
+
+	@Test
+	void multiGetReturnsProductsCachedInOnePipeline() {
+		ProductResponse first = product(1L);
+		ProductResponse second = product(2L);
+		cacheHelper.cacheProducts(List.of(first, second));
+
+		Map<Long, ProductResponse> found = cacheHelper.getProducts(List.of(1L, 2L, 3L));
+
+		assertEquals(Map.of(1L, first, 2L, second), found);
+	}
+
+	@Test
+	void singleAndListLookupsReadBackTypedValues() {
+		ProductResponse product = product(4L);
+		cacheHelper.cacheProduct(product);
+		cacheHelper.cacheProductList("products:active", List.of(product));
+
+		assertEquals(product, cacheHelper.getProduct(4L));
+		assertEquals(product, cacheHelper.getProductBySku("SKU-4"));
+		assertEquals(List.of(product), cacheHelper.getProductList("products:active"));
+	}
+
+	private static ProductResponse product(Long id) {
+		LocalDateTime createdAt = LocalDateTime.of(2026, 3, 1, 12, 30, 15);
+		return new ProductResponse(id, "Product " + id, "A product", "SKU-" + id, "BAR-" + id,
+				new BigDecimal("9.99"), "Tools", "Acme", "pcs", true, createdAt, createdAt);
+	}
+}
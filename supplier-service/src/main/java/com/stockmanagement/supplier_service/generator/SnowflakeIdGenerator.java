@@ -0,0 +1,78 @@
+package com.stockmanagement.supplier_service.generator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 64-bit ids laid out as 41 bits of milliseconds since EPOCH, 10 bits of node id and a 12 bit per-millisecond sequence
+// order-service and supplier-service each carry an identical copy of this class, since the services share no
+// library module; change both together (supplier-service's SharedSourceDriftTest fails when they differ)
+@Component
+@Slf4j
+public class SnowflakeIdGenerator {
+    
+    private static final long EPOCH = 1704067200000L; // 2024-01-01T00:00:00Z
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    
+    private final long nodeId;
+    
+    // Packs the last used timestamp and sequence so both advance with a single CAS
+    private final AtomicLong state = new AtomicLong();
+    
+    // Every replica needs its own node id, e.g. the StatefulSet ordinal; a guessed one can collide and duplicate ids
+    public SnowflakeIdGenerator(@Value("${id-generator.node-id:-1}") long configuredNodeId) {
+        if (configuredNodeId < 0) {
+            throw new IllegalStateException("id-generator.node-id must be set to a value unique to this instance");
+        }
+        this.nodeId = configuredNodeId;
+        if (nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        log.info("Snowflake id generator using node id: {}", nodeId);
+    }
+    
+    public long nextId() {
+        while (true) {
+            long current = state.get();
+            long lastTimestamp = current >>> SEQUENCE_BITS;
+            long now = System.currentTimeMillis() - EPOCH;
+            
+            long next;
+            if (now > lastTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else if ((current & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                // Same millisecond or the clock moved backwards: keep counting from the last timestamp so ids
+                // stay monotonic
+                next = current + 1;
+            } else {
+                // Sequence exhausted: wait for the clock rather than borrowing timestamps from the future
+                waitForClockAfter(lastTimestamp);
+                continue;
+            }
+            
+            if (state.compareAndSet(current, next)) {
+                return ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS))
+                        | (nodeId << SEQUENCE_BITS)
+                        | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+    
+    public String nextNumber(String prefix) {
+        return prefix + nextId();
+    }
+    
+    public long getNodeId() {
+        return nodeId;
+    }
+    
+    private static void waitForClockAfter(long timestamp) {
+        while (System.currentTimeMillis() - EPOCH <= timestamp) {
+            Thread.onSpinWait();
+        }
+    }
+}
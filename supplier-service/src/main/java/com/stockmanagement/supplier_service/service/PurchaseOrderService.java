@@ -2,6 +2,7 @@ package com.stockmanagement.supplier_service.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.stockmanagement.supplier_service.dto.ProductDto;
@@ -18,10 +19,10 @@ import com.stockmanagement.supplier_service.exception.SupplierNotFoundException;
 import com.stockmanagement.supplier_service.repository.PurchaseOrderRepository;
 import com.stockmanagement.supplier_service.repository.SupplierRepository;
 import com.stockmanagement.supplier_service.client.ProductClient;
+import com.stockmanagement.supplier_service.generator.SnowflakeIdGenerator;
+import com.stockmanagement.supplier_service.money.Money;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.Currency;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -30,9 +31,15 @@ import java.util.stream.Collectors;
 @Slf4j
 public class PurchaseOrderService {
     
+    private static final String PO_NUMBER_PREFIX = "PO-";
+    
     private final PurchaseOrderRepository purchaseOrderRepository;
     private final SupplierRepository supplierRepository;
     private final ProductClient productClient;
+    private final SnowflakeIdGenerator idGenerator;
+    
+    @Value("${supplier.pricing.currency:USD}")
+    private Currency currency;
     
     @Transactional
     public PurchaseOrderResponse createPurchaseOrder(PurchaseOrderRequest request) {
@@ -48,10 +55,12 @@ public class PurchaseOrderService {
         po.setWarehouseId(request.getWarehouseId());
         po.setNotes(request.getNotes());
         
-        BigDecimal totalAmount = BigDecimal.ZERO;
+        Money totalAmount = Money.zero(currency);
         
         for (PurchaseOrderItemRequest itemRequest : request.getItems()) {
             ProductDto product = productClient.getProductById(itemRequest.getProductId());
+            Money unitPrice = Money.of(product.getPrice(), currency);
+            Money linePrice = unitPrice.times(itemRequest.getQuantity());
             
             PurchaseOrderItem item = new PurchaseOrderItem();
             item.setProductId(product.getId());
@@ -59,14 +68,14 @@ public class PurchaseOrderService {
             item.setProductSku(product.getSku());
             item.setOrderedQuantity(itemRequest.getQuantity());
             item.setReceivedQuantity(0);
-            item.setUnitPrice(product.getPrice());
-            item.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity())));
+            item.setUnitPrice(unitPrice.toBigDecimal());
+            item.setTotalPrice(linePrice.toBigDecimal());
             
             po.addItem(item);
-            totalAmount = totalAmount.add(item.getTotalPrice());
+            totalAmount = totalAmount.plus(linePrice);
         }
         
-        po.setTotalAmount(totalAmount);
+        po.setTotalAmount(totalAmount.toBigDecimal());
         PurchaseOrder saved = purchaseOrderRepository.save(po);
         
         log.info("Purchase order created: {}", saved.getPoNumber());
@@ -162,8 +171,7 @@ public class PurchaseOrderService {
     }
     
     private String generatePoNumber() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        return "PO-" + timestamp;
+        return idGenerator.nextNumber(PO_NUMBER_PREFIX);
     }
     
     private PurchaseOrderResponse mapToResponse(PurchaseOrder po) {
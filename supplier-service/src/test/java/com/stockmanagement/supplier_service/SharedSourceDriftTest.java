@@ -0,0 +1,36 @@
+package com.stockmanagement.supplier_service;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Money and SnowflakeIdGenerator are copied from order-service rather than shared through a library module;
+// outside the monorepo checkout, e.g. in an image build, there is nothing to compare against
+class SharedSourceDriftTest {
+
+	private static final Path SUPPLIER_SOURCES = Paths.get("src/main/java/com/stockmanagement/supplier_service");
+	private static final Path ORDER_SOURCES = Paths.get("../order-service/src/main/java/com/stockmanagement/order_service");
+
+	@ParameterizedTest
+	@ValueSource(strings = {"money/Money.java", "generator/SnowflakeIdGenerator.java"})
+	void copyMatchesOrderService(String file) throws IOException {
+		Path original = ORDER_SOURCES.resolve(file);
+		assumeTrue(Files.exists(original), "order-service sources are not checked out next to supplier-service");
+
+		assertEquals(withoutPackage(original), withoutPackage(SUPPLIER_SOURCES.resolve(file)),
+				file + " differs from order-service's copy; apply the change to both");
+	}
+
+	private static List<String> withoutPackage(Path file) throws IOException {
+		return Files.readAllLines(file).stream()
+				.filter(line -> !line.startsWith("package "))
+				.toList();
+	}
+}